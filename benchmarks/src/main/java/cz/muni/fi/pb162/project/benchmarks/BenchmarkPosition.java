@@ -0,0 +1,36 @@
+package cz.muni.fi.pb162.project.benchmarks;
+
+import cz.muni.fi.pb162.project.Chess;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.Player;
+
+/**
+ * Enum of positions on which the benchmarks are measured
+ *
+ * @author Adam Dzadon
+ */
+public enum BenchmarkPosition {
+
+    OPENING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"),
+    MIDDLEGAME("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -"),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -");
+
+    private final String fen;
+
+    BenchmarkPosition(String fen) {
+        this.fen = fen;
+    }
+
+    /**
+     * Creates a new game set to this position
+     *
+     * @return game with this position
+     */
+    public Chess toGame() {
+        return new Chess.Builder()
+                .addPlayer(new Player("White", Color.WHITE))
+                .addPlayer(new Player("Black", Color.BLACK))
+                .fromFen(fen)
+                .build();
+    }
+}
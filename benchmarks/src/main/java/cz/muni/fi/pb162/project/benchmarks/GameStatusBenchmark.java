@@ -0,0 +1,65 @@
+package cz.muni.fi.pb162.project.benchmarks;
+
+import cz.muni.fi.pb162.project.Chess;
+import cz.muni.fi.pb162.project.StateOfGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of detecting check, mate and stalemate
+ *
+ * @author Adam Dzadon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class GameStatusBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    private Chess game;
+
+    /**
+     * Prepares the game
+     */
+    @Setup
+    public void setUp() {
+        game = position.toGame();
+    }
+
+    /**
+     * Measures check detection of the player on the move
+     *
+     * @return whether the player is in check
+     */
+    @Benchmark
+    public boolean isCheckOf() {
+        return game.isCheckOf(game.getCurrentPlayer());
+    }
+
+    /**
+     * Measures computation of state of the game
+     *
+     * @return computed state
+     */
+    @Benchmark
+    public StateOfGame updateStatus() {
+        game.updateStatus();
+        return game.getStateOfGame();
+    }
+}
@@ -0,0 +1,71 @@
+package cz.muni.fi.pb162.project.benchmarks;
+
+import cz.muni.fi.pb162.project.Chess;
+import cz.muni.fi.pb162.project.Piece;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of generating moves of all pieces of the player on the move
+ *
+ * @author Adam Dzadon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    private Chess game;
+    private Piece[] pieces;
+
+    /**
+     * Prepares the game and pieces of the player on the move
+     */
+    @Setup
+    public void setUp() {
+        game = position.toGame();
+        pieces = game.getBoard().getAllByColor(game.getCurrentPlayer().color());
+    }
+
+    /**
+     * Measures pseudo-legal moves of all pieces
+     *
+     * @param blackhole sink of results
+     */
+    @Benchmark
+    public void allPossibleMoves(Blackhole blackhole) {
+        for (Piece piece : pieces) {
+            blackhole.consume(piece.getAllPossibleMoves(game));
+        }
+    }
+
+    /**
+     * Measures legal moves of all pieces
+     *
+     * @param blackhole sink of results
+     */
+    @Benchmark
+    public void movesByPiece(Blackhole blackhole) {
+        for (Piece piece : pieces) {
+            blackhole.consume(game.getMovesByPiece(piece));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package cz.muni.fi.pb162.project.benchmarks;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Chess;
+import cz.muni.fi.pb162.project.Memento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of saving and restoring the board and of writing and reading the game
+ *
+ * @author Adam Dzadon
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Thread)
+public class PersistenceBenchmark {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    private BenchmarkPosition position;
+
+    private Chess game;
+    private Board board;
+    private byte[] written;
+
+    /**
+     * Prepares the game and its written form
+     *
+     * @throws IOException when the game cannot be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        game = position.toGame();
+        board = game.getBoard();
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        game.write(os);
+        written = os.toByteArray();
+    }
+
+    /**
+     * Measures taking snapshot of the board and restoring it
+     *
+     * @return restored board
+     */
+    @Benchmark
+    public Board saveRestore() {
+        Memento memento = board.save();
+        board.restore(memento);
+        return board;
+    }
+
+    /**
+     * Measures writing the game
+     *
+     * @return written game
+     * @throws IOException when the game cannot be written
+     */
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream os = new ByteArrayOutputStream(written.length);
+        game.write(os);
+        return os.toByteArray();
+    }
+
+    /**
+     * Measures reading the game
+     *
+     * @return builder filled with read game
+     * @throws IOException when the game cannot be read
+     */
+    @Benchmark
+    public Chess.Builder read() throws IOException {
+        return new Chess.Builder().read(new ByteArrayInputStream(written), true);
+    }
+}
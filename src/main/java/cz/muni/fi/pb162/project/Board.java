@@ -1,20 +1,37 @@
 package cz.muni.fi.pb162.project;
 
+import cz.muni.fi.pb162.project.moves.LeaperAttacks;
+import cz.muni.fi.pb162.project.moves.SlidingAttacks;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 import cz.muni.fi.pb162.project.utils.BoardNotation;
+import cz.muni.fi.pb162.project.utils.PieceSquareTables;
+import cz.muni.fi.pb162.project.utils.Zobrist;
 
 import java.util.Arrays;
-import java.util.Objects;
-import java.util.stream.Stream;
 
 /**
- * Class which represents board of game
+ * Class which represents board of game.
+ * Besides the grid of pieces, the board keeps one bitboard per (color, piece type),
+ * occupancy masks of both colors, index of coordinates of pieces by their id, squares of both kings
+ * and Zobrist key of pieces. All of them are updated on every change of the grid.
  *
  * @author Adam Dzadon
  */
-public class Board implements Originator<Memento> {
+public class Board implements Originator<Memento>, Prototype<Board> {
 
     public static final int SIZE = 8;
+    public static final int NO_SQUARE = -1;
+    private static final int COLORS = Color.values().length;
+    private static final int TYPES = PieceType.values().length;
+
     private Piece[][] squares = new Piece[SIZE][SIZE];
+    private final long[][] bitboards = new long[COLORS][TYPES];
+    private final long[] occupancy = new long[COLORS];
+    private final long[] pieceIds = new long[SIZE * SIZE];
+    private final int[] kingSquares = {NO_SQUARE, NO_SQUARE};
+    private final int[] material = new int[COLORS];
+    private final int[] positional = new int[COLORS];
+    private long piecesKey;
     private int round;
 
     public int getRound() {
@@ -76,7 +93,7 @@ public class Board implements Originator<Memento> {
      * @return true if there is no piece on given coordinates
      */
     public boolean isEmpty(int row, int col) {
-        return !inRange(row, col) || squares[row][col] == null;
+        return !inRange(row, col) || !Bitboards.isSet(getOccupancy(), Bitboards.square(row, col));
     }
 
     /**
@@ -114,9 +131,226 @@ public class Board implements Originator<Memento> {
         if (!inRange(row, col)) {
             return;
         }
+        int square = Bitboards.square(row, col);
+        Piece previous = squares[row][col];
+        if (previous != null) {
+            removeBit(previous, square);
+            unindex(previous);
+        }
+        if (piece != null) {
+            setBit(piece, square);
+            index(piece, square);
+        }
         squares[row][col] = piece;
     }
 
+    /**
+     * Helper method to remember id of given piece on its square and square of king
+     *
+     * @param piece  piece to remember
+     * @param square index of square
+     */
+    private void index(Piece piece, int square) {
+        pieceIds[square] = piece.getId();
+        if (piece.getPieceType() == PieceType.KING) {
+            kingSquares[piece.getColor().ordinal()] = square;
+        }
+    }
+
+    /**
+     * Helper method to update square of king after given piece was removed from its square.
+     * Id stays in the array, it is ignored once the square is not occupied.
+     *
+     * @param piece removed piece
+     */
+    private void unindex(Piece piece) {
+        if (piece.getPieceType() == PieceType.KING) {
+            long kings = getBitboard(piece.getColor(), PieceType.KING);
+            kingSquares[piece.getColor().ordinal()] = kings == 0 ? NO_SQUARE : Long.numberOfTrailingZeros(kings);
+        }
+    }
+
+    /**
+     * Helper method to mark given piece on given square in bitboards
+     *
+     * @param piece  piece to mark
+     * @param square index of square
+     */
+    private void setBit(Piece piece, int square) {
+        int color = piece.getColor().ordinal();
+        bitboards[color][piece.getPieceType().ordinal()] |= Bitboards.bit(square);
+        occupancy[color] |= Bitboards.bit(square);
+        piecesKey ^= Zobrist.piece(piece.getColor(), piece.getPieceType(), square);
+        material[color] += piece.getPieceType().getValue();
+        positional[color] += PieceSquareTables.bonus(piece.getColor(), piece.getPieceType(), square);
+    }
+
+    /**
+     * Helper method to erase given piece from given square in bitboards
+     *
+     * @param piece  piece to erase
+     * @param square index of square
+     */
+    private void removeBit(Piece piece, int square) {
+        int color = piece.getColor().ordinal();
+        bitboards[color][piece.getPieceType().ordinal()] &= ~Bitboards.bit(square);
+        occupancy[color] &= ~Bitboards.bit(square);
+        piecesKey ^= Zobrist.piece(piece.getColor(), piece.getPieceType(), square);
+        material[color] -= piece.getPieceType().getValue();
+        positional[color] -= PieceSquareTables.bonus(piece.getColor(), piece.getPieceType(), square);
+    }
+
+    /**
+     * Returns sum of values of all pieces of given color, kept up to date on every change of the board
+     *
+     * @param color color of pieces
+     * @return material of given color
+     */
+    public int getMaterial(Color color) {
+        return material[color.ordinal()];
+    }
+
+    /**
+     * Returns sum of bonuses of all pieces of given color for squares they stand on
+     * (see {@link PieceSquareTables}), kept up to date on every change of the board
+     *
+     * @param color color of pieces
+     * @return positional score of given color in centipawns
+     */
+    public int getPositionalScore(Color color) {
+        return positional[color.ordinal()];
+    }
+
+    /**
+     * Helper method to recompute all bitboards and indices from the grid of pieces
+     */
+    private void recomputeIndices() {
+        for (long[] byType : bitboards) {
+            Arrays.fill(byType, Bitboards.EMPTY);
+        }
+        Arrays.fill(occupancy, Bitboards.EMPTY);
+        Arrays.fill(material, 0);
+        Arrays.fill(positional, 0);
+        piecesKey = 0;
+        Arrays.fill(kingSquares, NO_SQUARE);
+        for (int square = 0; square < SIZE * SIZE; square++) {
+            Piece piece = getPiece(square);
+            if (piece != null) {
+                setBit(piece, square);
+                index(piece, square);
+            }
+        }
+    }
+
+    /**
+     * Returns Zobrist key of the position on the board (pieces and side to move).
+     * The key is maintained incrementally, so this method takes constant time.
+     *
+     * @return 64-bit hash of the position
+     */
+    public long getZobristKey() {
+        return round % 2 == 0 ? piecesKey : piecesKey ^ Zobrist.blackToMove();
+    }
+
+    /**
+     * Returns index of square of the king of given color
+     *
+     * @param color color of the king
+     * @return index of square or {@link #NO_SQUARE} if there is no such king
+     */
+    public int getKingSquare(Color color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * Returns coordinates of the king of given color
+     *
+     * @param color color of the king
+     * @return coordinates of the king or null if there is no such king
+     */
+    public Coordinates getKingCoordinates(Color color) {
+        int square = getKingSquare(color);
+        return square == NO_SQUARE ? null : Coordinates.of(Bitboards.row(square), Bitboards.column(square));
+    }
+
+    /**
+     * Method to get piece on given square
+     *
+     * @param square - index of square (see {@link Bitboards#square(int, int)})
+     * @return piece on given square or null if the square is empty
+     */
+    public Piece getPiece(int square) {
+        return squares[Bitboards.row(square)][Bitboards.column(square)];
+    }
+
+    /**
+     * Returns bitboard of all pieces of given color and type
+     *
+     * @param color     color of pieces
+     * @param pieceType type of pieces
+     * @return bitboard with squares occupied by such pieces
+     */
+    public long getBitboard(Color color, PieceType pieceType) {
+        return bitboards[color.ordinal()][pieceType.ordinal()];
+    }
+
+    /**
+     * Returns bitboard of all squares occupied by pieces of given color
+     *
+     * @param color color of pieces
+     * @return occupancy mask of given color
+     */
+    public long getOccupancy(Color color) {
+        return occupancy[color.ordinal()];
+    }
+
+    /**
+     * Returns bitboard of all occupied squares
+     *
+     * @return occupancy mask of both colors
+     */
+    public long getOccupancy() {
+        return occupancy[Color.WHITE.ordinal()] | occupancy[Color.BLACK.ordinal()];
+    }
+
+    /**
+     * Decides whether given square is attacked by any chess piece of given color.
+     * Looks outward from the square for each kind of attacker and stops at the first hit.
+     *
+     * @param coordinates coordinates of the square
+     * @param attacker    color of attacking pieces
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(Coordinates coordinates, Color attacker) {
+        if (!inRange(coordinates)) {
+            return false;
+        }
+        return isSquareAttacked(Bitboards.square(coordinates.letterNumber(), coordinates.number()), attacker);
+    }
+
+    /**
+     * Decides whether given square is attacked by any chess piece of given color
+     *
+     * @param square   index of the square
+     * @param attacker color of attacking pieces
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(int square, Color attacker) {
+        Color defender = attacker.getOppositeColor();
+        if ((LeaperAttacks.pawnAttacks(defender, square) & getBitboard(attacker, PieceType.PAWN)) != 0
+                || (LeaperAttacks.knight(square) & getBitboard(attacker, PieceType.KNIGHT)) != 0
+                || (LeaperAttacks.king(square) & getBitboard(attacker, PieceType.KING)) != 0) {
+            return true;
+        }
+        long queens = getBitboard(attacker, PieceType.QUEEN);
+        long diagonal = getBitboard(attacker, PieceType.BISHOP) | queens;
+        if (diagonal != 0 && (SlidingAttacks.diagonal(square, getOccupancy()) & diagonal) != 0) {
+            return true;
+        }
+        long straight = getBitboard(attacker, PieceType.ROOK) | queens;
+        return straight != 0 && (SlidingAttacks.straight(square, getOccupancy()) & straight) != 0;
+    }
+
     /**
      * Method to find Coordinates of piece by given id
      *
@@ -124,17 +358,28 @@ public class Board implements Originator<Memento> {
      * @return Coordinates of piece with given id or null if there is no such piece
      */
     public Coordinates findCoordinatesOfPieceById(long id) {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                Piece piece = this.getPiece(i, j);
-                if (piece != null && piece.getId() == (id)) {
-                    return new Coordinates(i, j);
-                }
+        for (long pieces = getOccupancy(); pieces != 0; pieces &= pieces - 1) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            if (pieceIds[square] == id) {
+                return Coordinates.of(Bitboards.row(square), Bitboards.column(square));
             }
         }
-
         return null;
+    }
 
+    /**
+     * Helper method to collect pieces standing on squares of given bitboard
+     *
+     * @param bitboard squares to collect
+     * @return array of pieces ordered by index of square
+     */
+    private Piece[] piecesOf(long bitboard) {
+        Piece[] res = new Piece[Long.bitCount(bitboard)];
+        int i = 0;
+        for (long rest = bitboard; rest != 0; rest &= rest - 1) {
+            res[i++] = getPiece(Long.numberOfTrailingZeros(rest));
+        }
+        return res;
     }
 
     /**
@@ -143,10 +388,7 @@ public class Board implements Originator<Memento> {
      * @return all pieces currently on board
      */
     public Piece[] getAllPiecesFromBoard() {
-        return Arrays.stream(squares)
-                .flatMap(Stream::of)
-                .filter(Objects::nonNull)
-                .toArray(Piece[]::new);
+        return piecesOf(getOccupancy());
     }
 
     /**
@@ -156,8 +398,7 @@ public class Board implements Originator<Memento> {
      * @return array of pieces of given color
      */
     public Piece[] getAllByColor(Color color) {
-        return Arrays.stream(getAllPiecesFromBoard())
-                .filter((Piece p) -> p.getColor() == color).toArray(Piece[]::new);
+        return piecesOf(getOccupancy(color));
     }
 
     /**
@@ -239,7 +480,7 @@ public class Board implements Originator<Memento> {
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares) * 13 + round * 23;
+        return Long.hashCode(getZobristKey()) * 13 + round * 23;
     }
 
     /**
@@ -264,14 +505,35 @@ public class Board implements Originator<Memento> {
         return res;
     }
 
+    @Override
+    public Board makeClone() {
+        Board res = new Board();
+        res.squares = boardDeepCopy();
+        res.round = round;
+        res.recomputeIndices();
+        return res;
+    }
+
     @Override
     public Memento save() {
-        return new Memento(round, boardDeepCopy());
+        long occupied = getOccupancy();
+        Piece[] pieces = new Piece[Long.bitCount(occupied)];
+        int i = 0;
+        for (long rest = occupied; rest != 0; rest &= rest - 1) {
+            pieces[i++] = getPiece(Long.numberOfTrailingZeros(rest));
+        }
+        return new Memento(round, occupied, pieces);
     }
 
     @Override
     public void restore(Memento save) {
-        this.squares = save.board();
+        this.squares = new Piece[SIZE][SIZE];
+        int i = 0;
+        for (long rest = save.occupancy(); rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            squares[Bitboards.row(square)][Bitboards.column(square)] = save.pieces()[i++];
+        }
         this.round = save.round();
+        recomputeIndices();
     }
 }
@@ -1,5 +1,6 @@
 package cz.muni.fi.pb162.project;
 
+import cz.muni.fi.pb162.project.exceptions.InvalidFormatOfInputException;
 import cz.muni.fi.pb162.project.exceptions.MissingPlayerException;
 import cz.muni.fi.pb162.project.strategies.MoveStrategy;
 import cz.muni.fi.pb162.project.utils.BoardNotation;
@@ -31,6 +32,10 @@ public class Chess extends Game implements GameWritable {
         super(player1, player2, board);
     }
 
+    private Chess(Chess other) {
+        super(other);
+    }
+
     /**
      * Creates new instance of chess object
      *
@@ -53,6 +58,7 @@ public class Chess extends Game implements GameWritable {
         writer.write(p1.name() + "-" + p1.color().toString());
         writer.write(';');
         writer.write(p2.name() + "-" + p2.color().toString());
+        writer.newLine();
     }
 
     /**
@@ -161,6 +167,112 @@ public class Chess extends Game implements GameWritable {
             return this;
         }
 
+        /**
+         * Puts pieces of position given in Forsyth-Edwards notation on the board and sets player on the move.
+         * Castling in this game depends only on placement of king and rook, so castling availability has to be
+         * the one given by the placement (king and rook on their initial squares), or "-" if there is none.
+         * Square of en passant capture is not supported, it has to be "-".
+         *
+         * @param fen position in Forsyth-Edwards notation
+         * @return instance of current builder
+         * @throws InvalidFormatOfInputException when the notation is not valid
+         */
+        public Builder fromFen(String fen) {
+            String[] fields = fen.trim().split("\\s+");
+            String[] rows = fields[0].split("/");
+            if (rows.length != Board.SIZE || fields.length < 2 || !fields[1].matches("[wb]")) {
+                throw new InvalidFormatOfInputException("Invalid FEN: " + fen);
+            }
+            if (fields.length > 3 && !fields[3].equals("-")) {
+                throw new InvalidFormatOfInputException("En passant square in FEN is not supported: " + fen);
+            }
+            for (int row = 0; row < Board.SIZE; row++) {
+                parseFenRow(row, rows[row]);
+            }
+            if (fields.length > 2 && !fields[2].equals(castlingOfPlacement())) {
+                throw new InvalidFormatOfInputException("Castling availability disagrees with placement: " + fen);
+            }
+            board.setRound(fields[1].equals("w") ? Color.WHITE.ordinal() : Color.BLACK.ordinal());
+            return this;
+        }
+
+        /**
+         * Helper method to parse one row of position in Forsyth-Edwards notation
+         *
+         * @param row  number of row
+         * @param line notation of the row
+         */
+        private void parseFenRow(int row, String line) {
+            int col = 0;
+            for (char symbol : line.toCharArray()) {
+                if (Character.isDigit(symbol)) {
+                    col += symbol - '0';
+                } else if (col < Board.SIZE) {
+                    Color color = Character.isUpperCase(symbol) ? Color.WHITE : Color.BLACK;
+                    board.putPieceOnBoard(row, col++, new Piece(color, fenPieceType(symbol)));
+                } else {
+                    col++;
+                }
+            }
+            if (col != Board.SIZE) {
+                throw new InvalidFormatOfInputException("Invalid row of FEN: " + line);
+            }
+        }
+
+        /**
+         * Helper method to derive castling availability in Forsyth-Edwards notation from placement of pieces
+         *
+         * @return letters of sides on which king and rook stand on their initial squares, or "-" if there is none
+         */
+        private String castlingOfPlacement() {
+            StringBuilder castling = new StringBuilder();
+            for (Color color : new Color[] {Color.WHITE, Color.BLACK}) {
+                int row = color == Color.WHITE ? Board.SIZE - 1 : 0;
+                if (!isPieceOf(row, 4, color, PieceType.KING)) {
+                    continue;
+                }
+                if (isPieceOf(row, Board.SIZE - 1, color, PieceType.ROOK)) {
+                    castling.append(color == Color.WHITE ? 'K' : 'k');
+                }
+                if (isPieceOf(row, 0, color, PieceType.ROOK)) {
+                    castling.append(color == Color.WHITE ? 'Q' : 'q');
+                }
+            }
+            return castling.isEmpty() ? "-" : castling.toString();
+        }
+
+        /**
+         * Helper method to decide whether piece of given color and type stands on given square
+         *
+         * @param row   index of row
+         * @param col   index of column
+         * @param color color of piece
+         * @param type  type of piece
+         * @return true if there is such piece on the square
+         */
+        private boolean isPieceOf(int row, int col, Color color, PieceType type) {
+            Piece piece = board.getPiece(row, col);
+            return piece != null && piece.getColor() == color && piece.getPieceType() == type;
+        }
+
+        /**
+         * Helper method to convert letter of piece in Forsyth-Edwards notation to type of piece
+         *
+         * @param symbol letter of piece
+         * @return type of piece
+         */
+        private static PieceType fenPieceType(char symbol) {
+            return switch (Character.toLowerCase(symbol)) {
+                case 'k' -> PieceType.KING;
+                case 'q' -> PieceType.QUEEN;
+                case 'r' -> PieceType.ROOK;
+                case 'b' -> PieceType.BISHOP;
+                case 'n' -> PieceType.KNIGHT;
+                case 'p' -> PieceType.PAWN;
+                default -> throw new InvalidFormatOfInputException("Invalid piece in FEN: " + symbol);
+            };
+        }
+
         @Override
         public Chess build() {
 
@@ -184,8 +296,8 @@ public class Chess extends Game implements GameWritable {
         private void parseLine(int row, String line) throws IOException {
             String[] pieceStrings = line.split(";");
             String[] pieceAttrs;
-            int col = 0;
-            for (String pieceString : pieceStrings) {
+            for (int col = 0; col < pieceStrings.length; col++) {
+                String pieceString = pieceStrings[col];
 
                 // empty square
                 if (pieceString.equals("_")) {
@@ -212,24 +324,31 @@ public class Chess extends Game implements GameWritable {
 
         @Override
         public Builder read(InputStream is) throws IOException {
+            return read(is, false);
+        }
+
+        /**
+         * Helper which parses the board from given reader
+         *
+         * @param reader given reader
+         * @throws IOException when IO error
+         */
+        private void parseBoard(BufferedReader reader) throws IOException {
             String line;
             int row = 0;
-            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
             while ((line = reader.readLine()) != null) {
                 parseLine(row, line);
                 row++;
             }
-            return this;
         }
 
         /**
-         * Helper which parses the header from given stream
+         * Helper which parses the header from given reader
          *
-         * @param is given input stream
+         * @param reader given reader
          * @throws IOException when IO error
          */
-        private void parseHeader(InputStream is) throws IOException {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        private void parseHeader(BufferedReader reader) throws IOException {
             String header = reader.readLine();
             String[] playerStrings = header.split(";");
 
@@ -254,10 +373,12 @@ public class Chess extends Game implements GameWritable {
 
         @Override
         public Builder read(InputStream is, boolean hasHeader) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
             if (hasHeader) {
-                parseHeader(is);
+                parseHeader(reader);
             }
-            return read(is);
+            parseBoard(reader);
+            return this;
         }
 
         @Override
@@ -318,39 +439,18 @@ public class Chess extends Game implements GameWritable {
         setPieces(Board.SIZE - 1, Color.WHITE);
     }
 
-    /**
-     * Helper method to get the king of given player
-     *
-     * @param player - player to get the king of
-     * @return king piece of given player
-     */
-    private Piece getKingOf(Player player) {
-        Piece[] currentPieces = getBoard().getAllByColor(player.color());
-        for (Piece piece : currentPieces) {
-            if (piece.getPieceType() == PieceType.KING) {
-                return piece;
-            }
-        }
-        return null;
+    @Override
+    public Chess makeClone() {
+        return new Chess(this);
     }
 
     @Override
     public boolean isCheckOf(Player player) {
-        Player opposing = getPlayerOne().equals(player) ? getPlayerTwo() : getPlayerOne();
-        Piece currentKing = getKingOf(player);
-
-        assert currentKing != null;
-        Coordinates kingCoordinates = getBoard().findCoordinatesOfPieceById(currentKing.getId());
-        return movesByPlayerUnrestricted(opposing).contains(kingCoordinates);
-    }
-
-    /**
-     * Checks whether mate occurred
-     *
-     * @return true if mate occurred
-     */
-    private boolean isMate() {
-        return movesByPlayer(getCurrentPlayer()).isEmpty() && isCheck();
+        int king = getBoard().getKingSquare(player.color());
+        if (king == Board.NO_SQUARE) {
+            return false;
+        }
+        return getBoard().isSquareAttacked(king, player.color().getOppositeColor());
     }
 
     /**
@@ -362,22 +462,15 @@ public class Chess extends Game implements GameWritable {
         return isCheckOf(getCurrentPlayer()) || isCheckOf(getOpposingPlayer());
     }
 
-    /**
-     * Checks whether "pat" occurred
-     *
-     * @return true if pat occurred
-     */
-    private boolean isPat() {
-        return movesByPlayer(getCurrentPlayer()).isEmpty() && !isCheck();
-    }
-
     @Override
     public void updateStatus() {
-        if (isMate()) {
+        boolean check = isCheck();
+        boolean noMoves = !hasAnyMove(getCurrentPlayer());
+        if (noMoves && check) {
             setStateOfGame(StateOfGame.MATE);
-        } else if (isCheck()) {
+        } else if (check) {
             setStateOfGame(StateOfGame.CHECK);
-        } else if (isPat()) {
+        } else if (noMoves) {
             setStateOfGame(StateOfGame.PAT);
         } else {
             setStateOfGame(StateOfGame.PLAYING);
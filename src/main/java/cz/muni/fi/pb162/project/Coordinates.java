@@ -12,6 +12,31 @@ import cz.muni.fi.pb162.project.utils.BoardNotation;
  */
 public record Coordinates(int letterNumber, int number) implements Comparable<Coordinates> {
 
+    private static final Coordinates[] SQUARES = new Coordinates[Board.SIZE * Board.SIZE];
+
+    static {
+        for (int row = 0; row < Board.SIZE; row++) {
+            for (int col = 0; col < Board.SIZE; col++) {
+                SQUARES[row * Board.SIZE + col] = new Coordinates(row, col);
+            }
+        }
+    }
+
+    /**
+     * Returns coordinates with given row and column. Coordinates of squares on the board are shared instances,
+     * coordinates out of the board are created anew.
+     *
+     * @param letterNumber index of row
+     * @param number       index of column
+     * @return coordinates with given row and column
+     */
+    public static Coordinates of(int letterNumber, int number) {
+        if (Board.inRange(letterNumber, number)) {
+            return SQUARES[letterNumber * Board.SIZE + number];
+        }
+        return new Coordinates(letterNumber, number);
+    }
+
     /**
      * Method to calculate average of two coordinates
      *
@@ -30,7 +55,7 @@ public record Coordinates(int letterNumber, int number) implements Comparable<Co
     public Coordinates add(Coordinates other) {
         int newLn = this.letterNumber() + other.letterNumber();
         int newN = this.number() + other.number();
-        return new Coordinates(newLn, newN);
+        return of(newLn, newN);
     }
 
     /**
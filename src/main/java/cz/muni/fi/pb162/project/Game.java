@@ -3,8 +3,13 @@ package cz.muni.fi.pb162.project;
 import cz.muni.fi.pb162.project.exceptions.EmptySquareException;
 import cz.muni.fi.pb162.project.exceptions.NotAllowedMoveException;
 import cz.muni.fi.pb162.project.gui.GameDisplay;
+import cz.muni.fi.pb162.project.moves.LegalMoveFilter;
+import cz.muni.fi.pb162.project.moves.MoveList;
+import cz.muni.fi.pb162.project.moves.PackedMove;
 import cz.muni.fi.pb162.project.strategies.ConsolePlayer;
 import cz.muni.fi.pb162.project.strategies.MoveStrategy;
+import cz.muni.fi.pb162.project.utils.Bitboards;
+import cz.muni.fi.pb162.project.utils.Zobrist;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.ArrayDeque;
@@ -12,24 +17,31 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Class to represent a board game between two players
  *
  * @author Adam Dzadon
  */
-public abstract class Game implements Playable {
+public abstract class Game implements Playable, Prototype<Game> {
+
+    public static final int DEFAULT_HISTORY_LIMIT = 1024;
 
     private final Deque<Memento> mementoHistory = new ArrayDeque<>();
+    private final Deque<UndoRecord> undoStack = new ArrayDeque<>();
     private final Board board;
+    private final LegalMoveFilter legalMoveFilter = new LegalMoveFilter();
     private final Player playerOne;
     private final Player playerTwo;
     private MoveStrategy strategyOne = new ConsolePlayer();
     private MoveStrategy strategyTwo = new ConsolePlayer();
     private StateOfGame stateOfGame = StateOfGame.PLAYING;
+    private int historyLimit = DEFAULT_HISTORY_LIMIT;
 
     // Storing last move to evaluate possibility of "en passant"
     private Pair<Coordinates, Coordinates> lastMove = null;
@@ -50,6 +62,18 @@ public abstract class Game implements Playable {
         this.board = board;
     }
 
+    /**
+     * Creates a copy of other game with its own copy of the board.
+     * History of moves and saved states is not copied, so the copy cannot take back moves made before.
+     *
+     * @param other - game to copy
+     */
+    protected Game(Game other) {
+        this(other.playerOne, other.playerTwo, other.board.makeClone(), other.strategyOne, other.strategyTwo);
+        stateOfGame = other.stateOfGame;
+        lastMove = other.lastMove;
+    }
+
     /**
      * Creates new instance of game session
      *
@@ -82,6 +106,29 @@ public abstract class Game implements Playable {
         return Collections.unmodifiableCollection(mementoHistory);
     }
 
+    public int getHistoryLimit() {
+        return historyLimit;
+    }
+
+    /**
+     * Sets maximal number of saved states kept for {@link #hitUndo()}, the oldest states are dropped first
+     *
+     * @param historyLimit maximal number of saved states
+     */
+    public void setHistoryLimit(int historyLimit) {
+        if (historyLimit < 0) {
+            throw new IllegalArgumentException("History limit cannot be negative");
+        }
+        this.historyLimit = historyLimit;
+        trimHistory();
+    }
+
+    private void trimHistory() {
+        while (mementoHistory.size() > historyLimit) {
+            mementoHistory.pollLast();
+        }
+    }
+
     public void setStateOfGame(StateOfGame stateOfGame) {
         this.stateOfGame = stateOfGame;
     }
@@ -131,6 +178,33 @@ public abstract class Game implements Playable {
         return lastMove;
     }
 
+    /**
+     * Returns Zobrist key of current position: pieces, side to move and column of possible en passant capture.
+     * Castling needs no key of its own, as in this game it depends only on placement of king and rook.
+     *
+     * @return 64-bit hash of current position
+     */
+    public long getPositionKey() {
+        long key = board.getZobristKey();
+        if (lastMove == null) {
+            return key;
+        }
+        Coordinates to = lastMove.getRight();
+        Piece pawn = board.getPiece(to);
+        if (pawn == null || pawn.getPieceType() != PieceType.PAWN
+                || Math.abs(lastMove.getLeft().letterNumber() - to.letterNumber()) != 2) {
+            return key;
+        }
+        for (int side = -1; side <= 1; side += 2) {
+            Piece neighbour = board.getPiece(to.letterNumber(), to.number() + side);
+            if (neighbour != null && neighbour.getPieceType() == PieceType.PAWN
+                    && neighbour.getColor() != pawn.getColor()) {
+                return key ^ Zobrist.enPassant(to.number());
+            }
+        }
+        return key;
+    }
+
     /**
      * Method to put piece on game board
      *
@@ -166,13 +240,104 @@ public abstract class Game implements Playable {
      */
     public Set<Coordinates> movesByPlayer(Player player) {
         Piece[] pieces = board.getAllByColor(player.color());
+        LegalMoveFilter filter = new LegalMoveFilter(board, player.color());
         Set<Coordinates> res = new HashSet<>();
         for (Piece piece : pieces) {
-            res.addAll(getMovesByPiece(piece));
+            res.addAll(getMovesByPiece(piece, filter));
         }
         return res;
     }
 
+    /**
+     * Fills given list with all moves of player on the move which do not expose his king.
+     * The list is cleared first, moves are packed as described in {@link PackedMove}.
+     *
+     * @param moves list to fill
+     */
+    public void generateMoves(MoveList moves) {
+        Color color = getCurrentPlayer().color();
+        moves.clear();
+        for (long rest = board.getOccupancy(color); rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            board.getPiece(square).generateAllPossibleMoves(this, coordinatesOf(square), moves);
+        }
+        keepLegal(moves, color);
+    }
+
+    /**
+     * Fills given list with moves of player on the move which capture a piece or promote
+     * and do not expose his king. Quiet moves are not generated at all, so this is much cheaper
+     * than filtering the result of {@link #generateMoves(MoveList)}.
+     *
+     * @param moves list to fill
+     */
+    public void generateCaptures(MoveList moves) {
+        Color color = getCurrentPlayer().color();
+        moves.clear();
+        for (long rest = board.getOccupancy(color); rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            board.getPiece(square).generateCaptures(this, coordinatesOf(square), moves);
+        }
+        keepLegal(moves, color);
+    }
+
+    private static Coordinates coordinatesOf(int square) {
+        return Coordinates.of(Bitboards.row(square), Bitboards.column(square));
+    }
+
+    /**
+     * Removes moves which expose king of given color from given list
+     *
+     * @param moves pseudo-legal moves
+     * @param color color of player on the move
+     */
+    private void keepLegal(MoveList moves, Color color) {
+        if (moves.size() == 0) {
+            return;
+        }
+        legalMoveFilter.update(board, color);
+        int kept = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (isLegal(move, legalMoveFilter)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
+    /**
+     * Decides whether given packed move does not expose king of moving piece
+     *
+     * @param move   packed move (see {@link PackedMove})
+     * @param filter legality filter of the position for color of moving piece
+     * @return true if the move is legal
+     */
+    private boolean isLegal(int move, LegalMoveFilter filter) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        if (PackedMove.isEnPassant(move)) {
+            return filter.allowsEnPassant(board, from, to);
+        }
+        return PackedMove.isCastle(move) ? filter.allowsCastle(from, to) : filter.allows(from, to);
+    }
+
+    /**
+     * Decides whether given player has any move which does not expose his king
+     *
+     * @param player player to evaluate
+     * @return true if there is at least one possible move
+     */
+    public boolean hasAnyMove(Player player) {
+        LegalMoveFilter filter = new LegalMoveFilter(board, player.color());
+        for (Piece piece : board.getAllByColor(player.color())) {
+            if (!getMovesByPiece(piece, filter).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns sum of costs of all pieces of player of given color
      *
@@ -180,13 +345,17 @@ public abstract class Game implements Playable {
      * @return sum of costs of all pieces of given color
      */
     public int getTotalValueOf(Color color) {
-        Piece[] pieces = board.getAllByColor(color);
-        int res = 0;
-        for (Piece piece : pieces) {
-            res += piece.getPieceType().getValue();
-        }
+        return board.getMaterial(color);
+    }
 
-        return res;
+    /**
+     * Returns player playing with given color
+     *
+     * @param color color of player
+     * @return player of given color
+     */
+    public Player getPlayerOf(Color color) {
+        return playerOne.color() == color ? playerOne : playerTwo;
     }
 
     /**
@@ -196,23 +365,161 @@ public abstract class Game implements Playable {
      * @return set of coordinates to which given piece can be moved
      */
     public Set<Coordinates> getMovesByPiece(Piece piece) {
+        return getMovesByPiece(piece, new LegalMoveFilter(board, piece.getColor()));
+    }
+
+    /**
+     * Returns all positions to which given piece can move without exposing its king.
+     * Common moves are decided by given filter, castle and en passant are tried by playing them.
+     *
+     * @param piece  piece to evaluate
+     * @param filter legality filter of the position for color of the piece
+     * @return set of coordinates to which given piece can be moved
+     */
+    private Set<Coordinates> getMovesByPiece(Piece piece, LegalMoveFilter filter) {
 
         Coordinates myCoordinates = board.findCoordinatesOfPieceById(piece.getId());
         Set<Coordinates> original = piece.getAllPossibleMoves(this);
         Set<Coordinates> filtered = new HashSet<>();
 
         for (Coordinates coords : original) {
-            Piece previous = board.getPiece(coords);
-            move(myCoordinates, coords);
-            if (!isCheckOf(getCurrentPlayer())) {
+            boolean special = isEnPassant(piece, myCoordinates, coords) || isCastle(piece, myCoordinates, coords);
+            if (special ? isLegalByPlaying(piece, myCoordinates, coords) : filter.allows(myCoordinates, coords)) {
                 filtered.add(coords);
             }
-            putPieceOnBoard(myCoordinates.letterNumber(), myCoordinates.number(), piece);
-            putPieceOnBoard(coords.letterNumber(), coords.number(), previous);
         }
         return filtered;
     }
 
+    /**
+     * Decides whether given move does not expose king of moving piece by playing it and taking it back
+     *
+     * @param piece moving piece
+     * @param from  coordinates of the piece
+     * @param to    where to move
+     * @return true if the king is not endangered after the move
+     */
+    private boolean isLegalByPlaying(Piece piece, Coordinates from, Coordinates to) {
+        makeMove(from, to);
+        boolean legal = !isCheckOf(getPlayerOf(piece.getColor()));
+        unmakeMove();
+        return legal;
+    }
+
+    /**
+     * Decides whether given move is "en passant" (pawn moving diagonally to an empty square)
+     *
+     * @param piece moving piece
+     * @param from  coordinates of the piece
+     * @param to    where to move
+     * @return true if the move is en passant
+     */
+    private boolean isEnPassant(Piece piece, Coordinates from, Coordinates to) {
+        return piece.getPieceType() == PieceType.PAWN && to.number() != from.number() && board.isEmpty(to);
+    }
+
+    /**
+     * Decides whether given move is "castle" (king moving by more than one column)
+     *
+     * @param piece moving piece
+     * @param from  coordinates of the piece
+     * @param to    where to move
+     * @return true if the move is castle
+     */
+    private boolean isCastle(Piece piece, Coordinates from, Coordinates to) {
+        return piece.getPieceType() == PieceType.KING && Math.abs(from.number() - to.number()) > 1;
+    }
+
+    /**
+     * Makes a move of piece from first coordinates to second coordinates including all its side effects
+     * (capture, en passant, castle, promotion), passes the turn to the other player
+     * and remembers how to take the move back (see {@link #unmakeMove()}).
+     * Legality of the move is not checked. If there is no piece on first coordinates, method does nothing.
+     *
+     * @param from coordinates of piece to move
+     * @param to   coordinates where to move
+     */
+    public void makeMove(Coordinates from, Coordinates to) {
+        Piece toMove = board.getPiece(from);
+        if (toMove == null || !Board.inRange(to)) {
+            return;
+        }
+
+        boolean enPassant = isEnPassant(toMove, from, to);
+        boolean castle = isCastle(toMove, from, to);
+        Coordinates capturedAt = enPassant ? Coordinates.of(from.letterNumber(), to.number()) : to;
+        undoStack.push(new UndoRecord(from, to, toMove, board.getPiece(capturedAt), capturedAt, castle, lastMove));
+
+        if (enPassant) {
+            performEnPassant(from, to);
+        } else if (castle) {
+            performCastle(from, to);
+        } else {
+            move(from, to);
+        }
+
+        board.setRound(board.getRound() + 1);
+        lastMove = Pair.of(from, to);
+    }
+
+    /**
+     * Makes packed move (see {@link PackedMove}) the same way as {@link #makeMove(Coordinates, Coordinates)}.
+     * If the move is a promotion, pawn is replaced by the piece encoded in the move.
+     *
+     * @param move packed move
+     */
+    public void makeMove(int move) {
+        Coordinates to = PackedMove.toCoordinates(move);
+        makeMove(PackedMove.fromCoordinates(move), to);
+        PieceType promotion = PackedMove.promotionType(move);
+        Piece promoted = board.getPiece(to);
+        if (promotion != null && promoted != null && promoted.getPieceType() != promotion) {
+            putPieceOnBoard(to.letterNumber(), to.number(), new Piece(promoted.getColor(), promotion));
+        }
+    }
+
+    /**
+     * Passes the turn to the other player without moving any piece (null move).
+     * Searches use it to find out whether the position is good even without a move.
+     * Null move is taken back by {@link #unmakeMove()} as any other move.
+     */
+    public void makeNullMove() {
+        undoStack.push(new UndoRecord(null, null, null, null, null, false, lastMove));
+        board.setRound(board.getRound() + 1);
+        lastMove = null;
+    }
+
+    /**
+     * Takes back the last move made by {@link #makeMove(Coordinates, Coordinates)} or {@link #makeNullMove()}.
+     * If there is no such move, method does nothing.
+     */
+    public void unmakeMove() {
+        UndoRecord record = undoStack.poll();
+        if (record == null) {
+            return;
+        }
+        if (record.moved() == null) {
+            board.setRound(board.getRound() - 1);
+            lastMove = record.previousLastMove();
+            return;
+        }
+
+        Coordinates from = record.from();
+        Coordinates to = record.to();
+        if (record.castle()) {
+            Coordinates rookFrom = castleRookFrom(from, to);
+            Coordinates rookTo = castleRookTo(from, to);
+            putPieceOnBoard(rookFrom.letterNumber(), rookFrom.number(), board.getPiece(rookTo));
+            putPieceOnBoard(rookTo.letterNumber(), rookTo.number(), null);
+        }
+        putPieceOnBoard(to.letterNumber(), to.number(), null);
+        putPieceOnBoard(record.capturedAt().letterNumber(), record.capturedAt().number(), record.captured());
+        putPieceOnBoard(from.letterNumber(), from.number(), record.moved());
+
+        board.setRound(board.getRound() - 1);
+        lastMove = record.previousLastMove();
+    }
+
     @Override
     public void move(Coordinates coords1, Coordinates coords2) {
 
@@ -237,7 +544,7 @@ public abstract class Game implements Playable {
      * @param to   Coordinates where to move
      */
     public void performEnPassant(Coordinates from, Coordinates to) {
-        Coordinates midStop = new Coordinates(from.letterNumber(), to.number());
+        Coordinates midStop = Coordinates.of(from.letterNumber(), to.number());
         move(from, midStop);
         move(midStop, to);
     }
@@ -250,12 +557,40 @@ public abstract class Game implements Playable {
      */
     public void performCastle(Coordinates from, Coordinates to) {
         move(from, to);
+        move(castleRookFrom(from, to), castleRookTo(from, to));
+    }
 
-        if (to.number() == 1) {
-            move(new Coordinates(from.letterNumber(), 0), new Coordinates(from.letterNumber(), 2));
-        } else {
-            move(new Coordinates(from.letterNumber(), Board.SIZE - 1), new Coordinates(from.letterNumber(), Board.SIZE - 3));
-        }
+    /**
+     * Returns coordinates of the rook taking part in "castle" move
+     *
+     * @param from Coordinates of king
+     * @param to   Coordinates where the king moves
+     * @return coordinates of the rook before castle
+     */
+    private static Coordinates castleRookFrom(Coordinates from, Coordinates to) {
+        return Coordinates.of(from.letterNumber(), to.number() == 1 ? 0 : Board.SIZE - 1);
+    }
+
+    /**
+     * Returns coordinates to which the rook moves in "castle" move
+     *
+     * @param from Coordinates of king
+     * @param to   Coordinates where the king moves
+     * @return coordinates of the rook after castle
+     */
+    private static Coordinates castleRookTo(Coordinates from, Coordinates to) {
+        return Coordinates.of(from.letterNumber(), to.number() == 1 ? 2 : Board.SIZE - 3);
+    }
+
+    /**
+     * Decides whether given square is attacked by any piece of given color
+     *
+     * @param coordinates coordinates of the square
+     * @param attacker    color of attacking pieces
+     * @return true if the square is attacked
+     */
+    public boolean isSquareAttacked(Coordinates coordinates, Color attacker) {
+        return board.isSquareAttacked(coordinates, attacker);
     }
 
     /**
@@ -282,14 +617,52 @@ public abstract class Game implements Playable {
 
     @Override
     public void playRound() throws EmptySquareException, NotAllowedMoveException {
-        Player currentPlayer;
-        MoveStrategy currentStrategy;
-        Map<Player, MoveStrategy> strategies = Map.of(playerOne, strategyOne, playerTwo, strategyTwo);
+        playMove(getCurrentStrategy().makeMove(this));
+    }
 
-        currentPlayer = getCurrentPlayer();
-        currentStrategy = strategies.get(currentPlayer);
+    /**
+     * Plays one round without blocking the calling thread. Strategy of current player
+     * computes its move by {@link MoveStrategy#makeMoveAsync(Game, Executor)}, the move is
+     * then validated and played on given executor. Game must not be changed until the returned
+     * future completes.
+     *
+     * @param executor executor running the search and playing the move
+     * @return future completed when the move is played, it completes exceptionally
+     * with {@link EmptySquareException} or {@link NotAllowedMoveException} for an invalid move
+     */
+    public CompletableFuture<Void> playRoundAsync(Executor executor) {
+        return getCurrentStrategy().makeMoveAsync(this, executor).thenAcceptAsync(move -> {
+            try {
+                playMove(move);
+            } catch (EmptySquareException | NotAllowedMoveException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Plays rounds by {@link #playRoundAsync(Executor)} until the game ends
+     *
+     * @param executor executor running the searches and playing the moves
+     * @return future completed when the game is over
+     */
+    public CompletableFuture<Void> playAsync(Executor executor) {
+        if (!playing()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return playRoundAsync(executor).thenCompose(ignored -> playAsync(executor));
+    }
+
+    private MoveStrategy getCurrentStrategy() {
+        return getCurrentPlayer().equals(playerOne) ? strategyOne : strategyTwo;
+    }
 
-        Pair<Coordinates, Coordinates> coordinates = currentStrategy.makeMove(this);
+    /**
+     * Validates move chosen by strategy of current player and plays it
+     */
+    private void playMove(Pair<Coordinates, Coordinates> coordinates)
+            throws EmptySquareException, NotAllowedMoveException {
+        Player currentPlayer = getCurrentPlayer();
         Coordinates from = coordinates.getLeft();
         Coordinates to = coordinates.getRight();
 
@@ -310,19 +683,7 @@ public abstract class Game implements Playable {
             return;
         }
 
-        // wants to perform en-passant
-        if (toMove.getPieceType() == PieceType.PAWN && to.number() != from.number() && board.isEmpty(to)) {
-            performEnPassant(from, to);
-            // wants to perform castle
-        } else if (toMove.getPieceType() == PieceType.KING && (Math.abs(from.number() - to.number()) > 1)) {
-            performCastle(from, to);
-            // wants to perform basic move
-        } else {
-            move(from, to);
-        }
-
-        board.setRound(board.getRound() + 1);
-        lastMove = Pair.of(from, to);
+        makeMove(from, to);
         updateStatus();
     }
 
@@ -371,6 +732,7 @@ public abstract class Game implements Playable {
     @Override
     public void hitSave() {
         mementoHistory.push(board.save());
+        trimHistory();
     }
 
     @Override
@@ -380,6 +742,7 @@ public abstract class Game implements Playable {
         }
 
         board.restore(mementoHistory.pop());
+        undoStack.clear();
     }
 
 }
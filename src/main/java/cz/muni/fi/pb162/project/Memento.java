@@ -1,11 +1,17 @@
 package cz.muni.fi.pb162.project;
 
 /**
- * Record to store the state of the board game
+ * Record to store the state of the board game.
+ * <p>
+ * Only occupied squares are stored: bit {@code i} of {@code occupancy} is set iff there is a piece
+ * on square {@code i} (see {@link cz.muni.fi.pb162.project.utils.Bitboards#square(int, int)}),
+ * and {@code pieces} holds those pieces in the order of their squares. Pieces are immutable,
+ * so they are shared with the board instead of being copied.
  *
- * @param round - round to be stored
- * @param board - 2D array representing a board to be saved
+ * @param round     - round to be stored
+ * @param occupancy - bitboard of occupied squares
+ * @param pieces    - pieces of occupied squares ordered by index of square
  * @author Adam Dzadon
  */
-public record Memento(int round, Piece[][] board) {
+public record Memento(int round, long occupancy, Piece[] pieces) {
 }
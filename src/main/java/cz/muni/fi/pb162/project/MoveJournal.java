@@ -0,0 +1,166 @@
+package cz.muni.fi.pb162.project;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Caretaker which remembers moves of the game instead of snapshots of the board.
+ * <p>
+ * Undo takes the last move back by {@link Game#unmakeMove()}, redo plays it again by
+ * {@link Game#makeMove(Coordinates, Coordinates)}, so both take constant time. Last move of the game
+ * and its {@link StateOfGame} are restored as well. Moves taken back stay in the journal until
+ * a new move is recorded.
+ * <p>
+ * Journal relies on the undo information kept by the game, so moves of the game must not be taken
+ * back by anyone else (including {@link Game#hitUndo()}) while the journal is in use.
+ *
+ * @author Adam Dzadon
+ */
+public class MoveJournal implements Caretaker {
+
+    private final Game game;
+    private final StateOfGame initialState;
+    private final List<Entry> entries = new ArrayList<>();
+    private int ply;
+
+    /**
+     * Creates empty journal of given game, current position of the game is the position at ply 0
+     *
+     * @param game game whose moves are recorded
+     */
+    public MoveJournal(Game game) {
+        this.game = game;
+        this.initialState = game.getStateOfGame();
+    }
+
+    /**
+     * Plays move on the game, updates state of the game and records the move
+     *
+     * @param from coordinates of piece to move
+     * @param to   coordinates where to move
+     */
+    public void play(Coordinates from, Coordinates to) {
+        game.makeMove(from, to);
+        game.updateStatus();
+        record(from, to);
+    }
+
+    /**
+     * Records the move last made on the game (e.g. by {@link Game#playRound()}).
+     * It has to be called exactly once after every move made outside of the journal.
+     */
+    @Override
+    public void hitSave() {
+        Pair<Coordinates, Coordinates> lastMove = game.getLastMove();
+        if (lastMove != null) {
+            record(lastMove.getLeft(), lastMove.getRight());
+        }
+    }
+
+    @Override
+    public void hitUndo() {
+        undo();
+    }
+
+    /**
+     * Takes back the last applied move
+     *
+     * @return true if there was a move to take back
+     */
+    public boolean undo() {
+        if (!canUndo()) {
+            return false;
+        }
+        game.unmakeMove();
+        ply--;
+        game.setStateOfGame(stateAt(ply));
+        return true;
+    }
+
+    /**
+     * Plays again the last move taken back
+     *
+     * @return true if there was a move to play again
+     */
+    public boolean redo() {
+        if (!canRedo()) {
+            return false;
+        }
+        Entry entry = entries.get(ply);
+        game.makeMove(entry.from(), entry.to());
+        ply++;
+        game.setStateOfGame(entry.stateAfter());
+        return true;
+    }
+
+    /**
+     * Takes back or plays again moves until the game is at given ply
+     *
+     * @param target number of applied moves, from 0 to {@link #size()}
+     */
+    public void jumpTo(int target) {
+        if (target < 0 || target > entries.size()) {
+            throw new IllegalArgumentException("Ply " + target + " is not in the journal");
+        }
+        while (ply > target) {
+            undo();
+        }
+        while (ply < target) {
+            redo();
+        }
+    }
+
+    /**
+     * Decides whether there is an applied move to take back
+     *
+     * @return true if undo is possible
+     */
+    public boolean canUndo() {
+        return ply > 0;
+    }
+
+    /**
+     * Decides whether there is a taken back move to play again
+     *
+     * @return true if redo is possible
+     */
+    public boolean canRedo() {
+        return ply < entries.size();
+    }
+
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Returns number of recorded moves (applied and taken back)
+     *
+     * @return number of recorded moves
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void record(Coordinates from, Coordinates to) {
+        entries.subList(ply, entries.size()).clear();
+        entries.add(new Entry(from, to, game.getStateOfGame()));
+        ply++;
+    }
+
+    private StateOfGame stateAt(int atPly) {
+        return atPly == 0 ? initialState : entries.get(atPly - 1).stateAfter();
+    }
+
+    /**
+     * Recorded move together with state of the game after it
+     *
+     * @param from       coordinates from which the piece moved
+     * @param to         coordinates to which the piece moved
+     * @param stateAfter state of the game after the move
+     * @author Adam Dzadon
+     */
+    private record Entry(Coordinates from, Coordinates to, StateOfGame stateAfter) {
+    }
+}
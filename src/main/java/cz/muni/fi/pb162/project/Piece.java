@@ -3,18 +3,18 @@ package cz.muni.fi.pb162.project;
 import cz.muni.fi.pb162.project.moves.Castle;
 import cz.muni.fi.pb162.project.moves.Diagonal;
 import cz.muni.fi.pb162.project.moves.Jump;
+import cz.muni.fi.pb162.project.moves.King;
 import cz.muni.fi.pb162.project.moves.Knight;
 import cz.muni.fi.pb162.project.moves.Move;
+import cz.muni.fi.pb162.project.moves.MoveList;
 import cz.muni.fi.pb162.project.moves.Pawn;
 import cz.muni.fi.pb162.project.moves.Straight;
 
 import javax.swing.*;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Stream;
 
 /**
  * Class representing a single piece of the board game.
@@ -74,13 +74,38 @@ public class Piece implements Prototype<Piece> {
      */
     public Set<Coordinates> getAllPossibleMoves(Game game) {
         Coordinates myCoordinates = game.getBoard().findCoordinatesOfPieceById(id);
-        Stream<Move> strategies = getMoves().stream();
+        Set<Coordinates> res = new HashSet<>();
+        for (Move strategy : moves) {
+            res.addAll(strategy.getAllowedMoves(game, myCoordinates));
+        }
+        return res;
+    }
+
+    /**
+     * Method to append all possible moves for this piece in given game to given list
+     * (the same moves as {@link #getAllPossibleMoves(Game)} returns)
+     *
+     * @param game     instance of current game
+     * @param position coordinates of this piece, known to the caller iterating over the board
+     * @param res      list to which the moves are appended
+     */
+    public void generateAllPossibleMoves(Game game, Coordinates position, MoveList res) {
+        for (int i = 0; i < moves.size(); i++) {
+            moves.get(i).generateMoves(game, position, res);
+        }
+    }
 
-        return strategies.collect(
-                HashSet::new,
-                (res, strategy) -> res.addAll(strategy.getAllowedMoves(game, myCoordinates)),
-                Set::addAll
-        );
+    /**
+     * Method to append possible moves for this piece in given game which capture a piece or promote
+     *
+     * @param game     instance of current game
+     * @param position coordinates of this piece, known to the caller iterating over the board
+     * @param res      list to which the moves are appended
+     */
+    public void generateCaptures(Game game, Coordinates position, MoveList res) {
+        for (int i = 0; i < moves.size(); i++) {
+            moves.get(i).generateCaptures(game, position, res);
+        }
     }
 
     @Override
@@ -107,7 +132,7 @@ public class Piece implements Prototype<Piece> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 
     /**
@@ -119,7 +144,7 @@ public class Piece implements Prototype<Piece> {
     private List<Move> getMovesByType(PieceType pieceType) {
         List<Move> moves;
         switch (pieceType) {
-            case KING -> moves = List.of(new Straight(1), new Diagonal(1), new Castle());
+            case KING -> moves = List.of(new King(), new Castle());
             case QUEEN -> moves = List.of(new Straight(), new Diagonal());
             case BISHOP -> moves = List.of(new Diagonal());
             case ROOK -> moves = List.of(new Straight());
@@ -15,26 +15,16 @@ import java.util.Map;
 public enum PieceType {
 
     // Chess
-    KING,
-    QUEEN,
-    ROOK,
-    BISHOP,
-    KNIGHT,
-    PAWN,
+    KING(1),
+    QUEEN(9),
+    ROOK(5),
+    BISHOP(3),
+    KNIGHT(3),
+    PAWN(1),
 
     // Draughts
-    DRAUGHTS_MAN,
-    DRAUGHTS_KING;
-
-    private static final Map<PieceType, Integer> VALUES = new HashMap<>() {{
-        put(PieceType.KING, 1);
-        put(PieceType.QUEEN, 9);
-        put(PieceType.PAWN, 1);
-        put(PieceType.ROOK, 5);
-        put(PieceType.KNIGHT, 3);
-        put(PieceType.BISHOP, 3);
-
-    }};
+    DRAUGHTS_MAN(0),
+    DRAUGHTS_KING(0);
 
     private static final Map<Pair<PieceType, Color>, ImageIcon> ICONS = new HashMap<>() {{
         put(Pair.of(PieceType.KING, Color.WHITE), IconLoader.loadImage("textures/king_white.png"));
@@ -70,6 +60,12 @@ public enum PieceType {
         put(Pair.of(PieceType.DRAUGHTS_KING, Color.BLACK), "⛃");
     }};
 
+    private final int value;
+
+    PieceType(int value) {
+        this.value = value;
+    }
+
     /**
      * Method to return unicode representation of given piece type with given color
      *
@@ -86,7 +82,7 @@ public enum PieceType {
      * @return value of this piece type
      */
     public int getValue() {
-        return VALUES.get(this);
+        return value;
     }
 
     /**
@@ -0,0 +1,27 @@
+package cz.muni.fi.pb162.project;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Record storing everything needed to take back one move made by {@link Game#makeMove(Coordinates, Coordinates)}.
+ * Promotion is taken back by putting the original {@code moved} piece back to {@code from},
+ * en passant by putting the {@code captured} pawn back to {@code capturedAt}.
+ * Null move (see {@link Game#makeNullMove()}) has all coordinates and pieces null.
+ *
+ * @param from             - coordinates from which the piece moved
+ * @param to               - coordinates to which the piece moved
+ * @param moved            - piece which moved (before possible promotion)
+ * @param captured         - captured piece or null if nothing was captured
+ * @param capturedAt       - coordinates of captured piece (differs from {@code to} only for en passant)
+ * @param castle           - true if the move was a castle (the rook moved as well)
+ * @param previousLastMove - last move of the game before this move
+ * @author Adam Dzadon
+ */
+public record UndoRecord(Coordinates from,
+                         Coordinates to,
+                         Piece moved,
+                         Piece captured,
+                         Coordinates capturedAt,
+                         boolean castle,
+                         Pair<Coordinates, Coordinates> previousLastMove) {
+}
@@ -0,0 +1,61 @@
+package cz.muni.fi.pb162.project.demo;
+
+import cz.muni.fi.pb162.project.Chess;
+import cz.muni.fi.pb162.project.utils.Perft;
+import cz.muni.fi.pb162.project.utils.PerftPosition;
+
+import java.util.Map;
+
+/**
+ * Class for measuring speed of perft of reference positions from command line.
+ * Correctness of the counts is checked by tests, this class only prints them.
+ * <p>
+ * Without arguments all reference positions are counted to their maximal known depth.
+ * With arguments {@code <position> <depth> [divide]} only given position is counted,
+ * optionally with number of leaf nodes for every move.
+ *
+ * @author Adam Dzadon
+ */
+public class PerftRunner {
+
+    /**
+     * Runs the perft.
+     *
+     * @param args optional name of position, depth and "divide"
+     */
+    public static void main(String[] args) {
+        if (args.length >= 2) {
+            PerftPosition position = PerftPosition.valueOf(args[0]);
+            int depth = Integer.parseInt(args[1]);
+            if (args.length > 2 && args[2].equals("divide")) {
+                printDivide(position.toGame(), depth);
+            }
+            run(position, depth);
+            return;
+        }
+
+        for (PerftPosition position : PerftPosition.values()) {
+            for (int depth = 1; depth <= position.getMaxDepth(); depth++) {
+                run(position, depth);
+            }
+        }
+    }
+
+    /**
+     * Counts leaf nodes of given position and prints them together with speed
+     *
+     * @param position reference position
+     * @param depth    depth of the tree
+     */
+    private static void run(PerftPosition position, int depth) {
+        Perft.Result result = Perft.measure(position.toGame(), depth);
+        System.out.printf("%-10s depth %d: %,12d nodes %,10d nodes/s%n",
+                position, depth, result.nodes(), result.nodesPerSecond());
+    }
+
+    private static void printDivide(Chess game, int depth) {
+        for (Map.Entry<String, Long> entry : Perft.divide(game, depth).entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+        }
+    }
+}
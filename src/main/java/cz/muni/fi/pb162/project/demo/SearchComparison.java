@@ -0,0 +1,53 @@
+package cz.muni.fi.pb162.project.demo;
+
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.strategies.AlphaBetaSearch;
+import cz.muni.fi.pb162.project.strategies.DFStrategy;
+import cz.muni.fi.pb162.project.strategies.MaterialEvaluator;
+import cz.muni.fi.pb162.project.strategies.SearchOptions;
+import cz.muni.fi.pb162.project.strategies.TranspositionTable;
+import cz.muni.fi.pb162.project.utils.PerftPosition;
+
+/**
+ * Class for comparing sizes of trees searched by different strategies from command line.
+ * <p>
+ * Every reference position is searched by {@link DFStrategy} and by {@link AlphaBetaSearch}
+ * with plain alpha-beta and with all pruning turned on (see {@link SearchOptions}).
+ * Printed effective branching factor is {@code nodes^(1/depth)}.
+ * With argument {@code <depth>} alpha-beta searches go to given depth (5 by default).
+ *
+ * @author Adam Dzadon
+ */
+public class SearchComparison {
+
+    private static final int DEFAULT_DEPTH = 5;
+
+    /**
+     * Runs the comparison.
+     *
+     * @param args optional depth of alpha-beta searches
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        for (PerftPosition position : PerftPosition.values()) {
+            DFStrategy strategy = new DFStrategy();
+            strategy.makeMove(position.toGame());
+            print(position, "DFS", DFStrategy.DEPTH, strategy.getLastNodes());
+            search(position, "alpha-beta", SearchOptions.ALPHA_BETA, depth);
+            search(position, "PVS", SearchOptions.PVS, depth);
+        }
+    }
+
+    private static void search(PerftPosition position, String name, SearchOptions options, int depth) {
+        Game game = position.toGame();
+        AlphaBetaSearch search = new AlphaBetaSearch(game, new TranspositionTable(DFStrategy.DEFAULT_TABLE_SIZE),
+                new MaterialEvaluator(), options);
+        search.iterate(depth);
+        print(position, name, search.getCompletedDepth(), search.getNodes());
+    }
+
+    private static void print(PerftPosition position, String name, int depth, long nodes) {
+        System.out.printf("%-10s %-10s depth %2d: %,12d nodes, branching factor %5.2f%n",
+                position, name, depth, nodes, Math.pow(nodes, 1.0 / depth));
+    }
+}
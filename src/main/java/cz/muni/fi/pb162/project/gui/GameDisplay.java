@@ -4,9 +4,11 @@ import cz.muni.fi.pb162.project.Board;
 import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
 import cz.muni.fi.pb162.project.Piece;
+import org.apache.commons.lang3.tuple.Pair;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Class representing GUI display of a board game
@@ -17,6 +19,7 @@ public class GameDisplay extends JFrame {
 
     private Coordinates fromSelected;
     private Coordinates toSelected;
+    private CompletableFuture<Pair<Coordinates, Coordinates>> pendingMove;
 
     private final static Color DARK = new Color(61, 115, 66);
     private final static Color LIGHT = new Color(240, 243, 150);
@@ -41,16 +44,43 @@ public class GameDisplay extends JFrame {
     /**
      * deletes selection of cells on board
      */
-    public void eraseSelected() {
+    public synchronized void eraseSelected() {
         fromSelected = null;
         toSelected = null;
     }
 
-    public Coordinates getFrom() {
+    /**
+     * Returns move selected by the user. The future is completed once both cells are selected,
+     * the selection is erased then.
+     *
+     * @return future completed by pair of selected cells
+     */
+    public synchronized CompletableFuture<Pair<Coordinates, Coordinates>> awaitMove() {
+        pendingMove = new CompletableFuture<>();
+        CompletableFuture<Pair<Coordinates, Coordinates>> res = pendingMove;
+        completeSelected();
+        return res;
+    }
+
+    /**
+     * Completes the pending move if both cells are selected
+     */
+    private void completeSelected() {
+        if (pendingMove == null || fromSelected == null || toSelected == null) {
+            return;
+        }
+        CompletableFuture<Pair<Coordinates, Coordinates>> move = pendingMove;
+        pendingMove = null;
+        Pair<Coordinates, Coordinates> selected = Pair.of(fromSelected, toSelected);
+        eraseSelected();
+        move.complete(selected);
+    }
+
+    public synchronized Coordinates getFrom() {
         return fromSelected;
     }
 
-    public Coordinates getTo() {
+    public synchronized Coordinates getTo() {
         return toSelected;
     }
 
@@ -94,15 +124,15 @@ public class GameDisplay extends JFrame {
      * @param i row of button
      * @param j col of button
      */
-    public void buttonClicked(int i, int j) {
+    public synchronized void buttonClicked(int i, int j) {
         if (fromSelected == null) {
-            fromSelected = new Coordinates(i, j);
+            fromSelected = Coordinates.of(i, j);
         } else if (toSelected == null) {
-            toSelected = new Coordinates(i, j);
+            toSelected = Coordinates.of(i, j);
         }
 
         refreshStatus();
-
+        completeSelected();
     }
 
     private void refreshStatus() {
@@ -6,13 +6,15 @@ import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
 import cz.muni.fi.pb162.project.Piece;
 import cz.muni.fi.pb162.project.PieceType;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Castle move
+ * Castle move.
+ * Moves for search are generated directly into {@link MoveList} without any allocation.
  *
  * @author Adam Dzadon
  */
@@ -37,6 +39,25 @@ public class Castle implements Move {
         return true;
     }
 
+    /**
+     * Helper method to check that the king does not stand in, pass through or arrive to an attacked square
+     *
+     * @param row   row of king
+     * @param to    column where the king arrives
+     * @param game  game instance
+     * @param color color of king
+     * @return true if no square on the way of the king is attacked by the opponent
+     */
+    private boolean isWaySafe(int row, int to, Game game, Color color) {
+        int side = Integer.signum(to - 4);
+        for (int col = 4; col != to + side; col += side) {
+            if (game.isSquareAttacked(Coordinates.of(row, col), color.getOppositeColor())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns set of coordinates to which a king can move with "castle" move
      *
@@ -49,42 +70,85 @@ public class Castle implements Move {
 
         Set<Coordinates> res = new HashSet<>();
 
-        if (checkSides(row, 1, game)) {
-            Piece possibleRook = game.getBoard().getPiece(row, Board.SIZE - 1);
-            if (possibleRook != null
-                    && possibleRook.getPieceType() == PieceType.ROOK
-                    && possibleRook.getColor() == color) {
-                res.add(new Coordinates(row, Board.SIZE - 2));
-            }
+        if (canCastle(row, 1, game, color)) {
+            res.add(Coordinates.of(row, Board.SIZE - 2));
         }
 
-        if (checkSides(row, -1, game)) {
-            Piece possibleRook = game.getBoard().getPiece(row, 0);
-            if (possibleRook != null
-                    && possibleRook.getPieceType() == PieceType.ROOK
-                    && possibleRook.getColor() == color) {
-                res.add(new Coordinates(row, 1));
-            }
+        if (canCastle(row, -1, game, color)) {
+            res.add(Coordinates.of(row, 1));
         }
 
         return res;
 
     }
 
+    /**
+     * Decides whether king of given color standing on its initial square can castle to given side
+     *
+     * @param row   row of king
+     * @param side  side to castle (1 for the rook in the last column, -1 for the rook in the first one)
+     * @param game  game instance
+     * @param color color of king
+     * @return true if there is own rook in the corner, nothing between and the way of the king is safe
+     */
+    private boolean canCastle(int row, int side, Game game, Color color) {
+        if (!checkSides(row, side, game)) {
+            return false;
+        }
+        Piece possibleRook = game.getBoard().getPiece(row, side > 0 ? Board.SIZE - 1 : 0);
+        return possibleRook != null
+                && possibleRook.getPieceType() == PieceType.ROOK
+                && possibleRook.getColor() == color
+                && isWaySafe(row, side > 0 ? Board.SIZE - 2 : 1, game, color);
+    }
+
+    /**
+     * Row of initial square of king of given color
+     */
+    private static int kingRow(Color color) {
+        return color == Color.BLACK ? 0 : Board.SIZE - 1;
+    }
+
+    @Override
+    public void generateMoves(Game game, Coordinates position, MoveList moves) {
+        Piece king = game.getBoard().getPiece(position);
+        if (king == null) {
+            return;
+        }
+        int row = kingRow(king.getColor());
+        if (position.letterNumber() != row || position.number() != 4) {
+            return;
+        }
+        int from = Bitboards.square(row, 4);
+        if (canCastle(row, 1, game, king.getColor())) {
+            moves.add(from, Bitboards.square(row, Board.SIZE - 2), PackedMove.KING_CASTLE);
+        }
+        if (canCastle(row, -1, game, king.getColor())) {
+            moves.add(from, Bitboards.square(row, 1), PackedMove.QUEEN_CASTLE);
+        }
+    }
+
+    /**
+     * Castle never captures, so there is nothing to generate
+     */
+    @Override
+    public void generateCaptures(Game game, Coordinates position, MoveList moves) {
+    }
+
     @Override
     public Set<Coordinates> getAllowedMoves(Game game, Coordinates position) {
         Piece king = game.getBoard().getPiece(position);
         Set<Coordinates> res = new HashSet<>();
 
         if (king.getColor() == Color.BLACK) {
-            if (!position.equals(new Coordinates(0, 4))) {
+            if (!position.equals(Coordinates.of(0, 4))) {
                 return Collections.emptySet();
             }
             res.addAll(evalCastle(0, game, Color.BLACK));
         }
 
         if (king.getColor() == Color.WHITE) {
-            if (!position.equals(new Coordinates(Board.SIZE - 1, 4))) {
+            if (!position.equals(Coordinates.of(Board.SIZE - 1, 4))) {
                 return Collections.emptySet();
             }
             res.addAll(evalCastle(Board.SIZE - 1, game, Color.WHITE));
@@ -4,17 +4,22 @@ import cz.muni.fi.pb162.project.Board;
 import cz.muni.fi.pb162.project.Color;
 import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 import java.util.HashSet;
 import java.util.Set;
-import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A generic movement in the diagonal direction.
+ * Targets are looked up in {@link SlidingAttacks} tables.
  *
  * @author Alzbeta Strompova
  */
 public class Diagonal implements Move {
 
+    private static final long[] COLUMNS_AFTER = columnMasks(true);
+    private static final long[] COLUMNS_BEFORE = columnMasks(false);
+
     private int maxRange = Board.SIZE;
     private boolean onlyForward = false;
 
@@ -49,33 +54,93 @@ public class Diagonal implements Move {
     @Override
     public Set<Coordinates> getAllowedMoves(Game game, Coordinates position) {
         var board = game.getBoard();
-        var result = new HashSet<Coordinates>();
         var piece = board.getPiece(position);
-        var color = (piece == null) ? null : piece.getColor();
-        Color goal;
-
-        var coordinates = Move.getDiagonalShift(onlyForward, color);
-        for (Pair<Integer, Integer> movement : coordinates) {
-            for (int i = 1; i <= maxRange; i++) {
-                var left = position.letterNumber() + i * movement.getLeft();
-                var right = position.number() + i * movement.getRight();
-                piece = board.getPiece(left, right);
-                goal = (piece == null) ? null : piece.getColor();
-                var coordinate = new Coordinates(left, right);
-                if (!Board.inRange(coordinate)) {
-                    break;
-                }
-                if (goal == null) {
-                    result.add(coordinate);
-                    continue;
-                }
-                if (color.getOppositeColor().equals(goal)) {
-                    result.add(coordinate);
+        if (piece == null) {
+            return new HashSet<>();
+        }
+
+        return Bitboards.toCoordinates(targets(board, piece, position));
+    }
+
+    @Override
+    public void generateMoves(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, false);
+    }
+
+    @Override
+    public void generateCaptures(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, true);
+    }
+
+    /**
+     * Appends moves of piece on given position, only the ones to squares of opponent's pieces if asked
+     *
+     * @param game         game instance
+     * @param position     position of the piece
+     * @param moves        list to which the moves are appended
+     * @param capturesOnly true to append only captures
+     */
+    private void generate(Game game, Coordinates position, MoveList moves, boolean capturesOnly) {
+        var board = game.getBoard();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return;
+        }
+
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        long opponents = board.getOccupancy(piece.getColor().getOppositeColor());
+        long targets = targets(board, piece, position);
+        moves.addTargets(square, capturesOnly ? targets & opponents : targets, opponents);
+    }
+
+    /**
+     * Computes squares to which given piece can move from given position
+     *
+     * @param board    board with the position
+     * @param piece    moving piece
+     * @param position position of the piece
+     * @return bitboard of target squares
+     */
+    private long targets(Board board, Piece piece, Coordinates position) {
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        long targets = SlidingAttacks.diagonal(square, board.getOccupancy())
+                & SlidingAttacks.withinRange(square, maxRange)
+                & ~board.getOccupancy(piece.getColor());
+        if (onlyForward) {
+            targets &= forwardMask(position.number(), piece.getColor());
+        }
+        return targets;
+    }
+
+    /**
+     * Returns mask of squares lying in forward direction of given color
+     * (see {@link Move#getDiagonalShift(boolean, Color)})
+     *
+     * @param col   column of the piece
+     * @param color color of the piece
+     * @return bitboard of squares in forward direction
+     */
+    private static long forwardMask(int col, Color color) {
+        return color == Color.WHITE ? COLUMNS_AFTER[col] : COLUMNS_BEFORE[col];
+    }
+
+    /**
+     * Computes masks of columns after (or before) each column
+     *
+     * @param after true to compute columns with higher index
+     * @return masks indexed by column
+     */
+    private static long[] columnMasks(boolean after) {
+        long[] res = new long[Board.SIZE];
+        for (int col = 0; col < Board.SIZE; col++) {
+            for (int square = 0; square < Board.SIZE * Board.SIZE; square++) {
+                int other = Bitboards.column(square);
+                if (after ? other > col : other < col) {
+                    res[col] |= Bitboards.bit(square);
                 }
-                break;
             }
         }
-        return result;
+        return res;
     }
 
 }
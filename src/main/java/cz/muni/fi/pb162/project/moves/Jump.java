@@ -49,8 +49,8 @@ public class Jump implements Move {
             piece = board.getPiece(leftToJump, rightToJump);
             if (color.getOppositeColor().equals((piece == null) ? null : piece.getColor())
                     && board.getPiece(leftGoal, rightGoal) == null
-                    && Board.inRange(new Coordinates(leftGoal, rightGoal))) {
-                result.add(new Coordinates(leftGoal, rightGoal));
+                    && Board.inRange(leftGoal, rightGoal)) {
+                result.add(Coordinates.of(leftGoal, rightGoal));
             }
         }
         return result;
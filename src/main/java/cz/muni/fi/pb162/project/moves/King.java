@@ -0,0 +1,74 @@
+package cz.muni.fi.pb162.project.moves;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Coordinates;
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.utils.Bitboards;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Movement of a chess king by one square in any direction
+ * (the same as {@code Straight(1)} and {@code Diagonal(1)} together).
+ * Targets are looked up in {@link LeaperAttacks} tables.
+ *
+ * @author Adam Dzadon
+ */
+public class King implements Move {
+
+    @Override
+    public Set<Coordinates> getAllowedMoves(Game game, Coordinates position) {
+        var board = game.getBoard();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return new HashSet<>();
+        }
+
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        return Bitboards.toCoordinates(targets(board, piece, square));
+    }
+
+    @Override
+    public void generateMoves(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, false);
+    }
+
+    @Override
+    public void generateCaptures(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, true);
+    }
+
+    /**
+     * Appends moves of piece on given position, only the ones to squares of opponent's pieces if asked
+     *
+     * @param game         game instance
+     * @param position     position of the piece
+     * @param moves        list to which the moves are appended
+     * @param capturesOnly true to append only captures
+     */
+    private void generate(Game game, Coordinates position, MoveList moves, boolean capturesOnly) {
+        var board = game.getBoard();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return;
+        }
+
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        long opponents = board.getOccupancy(piece.getColor().getOppositeColor());
+        long targets = targets(board, piece, square);
+        moves.addTargets(square, capturesOnly ? targets & opponents : targets, opponents);
+    }
+
+    /**
+     * Computes squares to which given piece can move from given square
+     *
+     * @param board  board with the position
+     * @param piece  moving piece
+     * @param square index of square of the piece
+     * @return bitboard of target squares
+     */
+    private static long targets(Board board, Piece piece, int square) {
+        return LeaperAttacks.king(square) & ~board.getOccupancy(piece.getColor());
+    }
+}
@@ -3,13 +3,14 @@ package cz.muni.fi.pb162.project.moves;
 import cz.muni.fi.pb162.project.Board;
 import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
-import java.util.Arrays;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 import java.util.HashSet;
 import java.util.Set;
-import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * Movement of a chess knight.
+ * Targets are looked up in {@link LeaperAttacks} tables.
  *
  * @author Alzbeta Strompova
  */
@@ -18,29 +19,55 @@ public class Knight implements Move {
     @Override
     public Set<Coordinates> getAllowedMoves(Game game, Coordinates position) {
         var board = game.getBoard();
-        var result = new HashSet<Coordinates>();
-
-        Set<Pair<Integer, Integer>> coordinates = new HashSet<>(Arrays.asList(
-                Pair.of(1, 2),
-                Pair.of(1, -2),
-                Pair.of(-1, 2),
-                Pair.of(-1, -2),
-                Pair.of(2, 1),
-                Pair.of(2, -1),
-                Pair.of(-2, 1),
-                Pair.of(-2, -1)));
-
-        for (Pair<Integer, Integer> movement : coordinates) {
-            var left = position.letterNumber() + movement.getLeft();
-            var right = position.number() + movement.getRight();
-            var goalPosition = new Coordinates(left, right);
-            if (Board.inRange(goalPosition) &&
-                    (board.getPiece(left, right) == null ||
-                    board.getPiece(position).getColor()
-                       .equals(board.getPiece(left, right).getColor().getOppositeColor()))) {
-                result.add(goalPosition);
-            }
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return new HashSet<>();
         }
-        return result;
+
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        return Bitboards.toCoordinates(targets(board, piece, square));
+    }
+
+    @Override
+    public void generateMoves(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, false);
+    }
+
+    @Override
+    public void generateCaptures(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, true);
+    }
+
+    /**
+     * Appends moves of piece on given position, only the ones to squares of opponent's pieces if asked
+     *
+     * @param game         game instance
+     * @param position     position of the piece
+     * @param moves        list to which the moves are appended
+     * @param capturesOnly true to append only captures
+     */
+    private void generate(Game game, Coordinates position, MoveList moves, boolean capturesOnly) {
+        var board = game.getBoard();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return;
+        }
+
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        long opponents = board.getOccupancy(piece.getColor().getOppositeColor());
+        long targets = targets(board, piece, square);
+        moves.addTargets(square, capturesOnly ? targets & opponents : targets, opponents);
+    }
+
+    /**
+     * Computes squares to which given piece can move from given square
+     *
+     * @param board  board with the position
+     * @param piece  moving piece
+     * @param square index of square of the piece
+     * @return bitboard of target squares
+     */
+    private static long targets(Board board, Piece piece, int square) {
+        return LeaperAttacks.knight(square) & ~board.getOccupancy(piece.getColor());
     }
 }
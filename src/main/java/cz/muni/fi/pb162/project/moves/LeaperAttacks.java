@@ -0,0 +1,108 @@
+package cz.muni.fi.pb162.project.moves;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.utils.Bitboards;
+
+/**
+ * Precomputed attack tables of pieces whose moves depend only on the source square
+ * (knight, king and pawn). Tables are built once when the class is loaded.
+ * <p>
+ * White pawns move towards row 0, black pawns towards the last row.
+ *
+ * @author Adam Dzadon
+ */
+public final class LeaperAttacks {
+
+    private static final int SQUARES = Board.SIZE * Board.SIZE;
+    private static final int[][] KNIGHT_SHIFTS = {
+            {1, 2}, {1, -2}, {-1, 2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}
+    };
+    private static final int[][] KING_SHIFTS = {
+            {0, 1}, {0, -1}, {1, 0}, {-1, 0}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
+    private static final long[] KNIGHT = table(KNIGHT_SHIFTS);
+    private static final long[] KING = table(KING_SHIFTS);
+    private static final long[][] PAWN_ATTACKS = {
+            table(new int[][] {{-1, 1}, {-1, -1}}),
+            table(new int[][] {{1, 1}, {1, -1}})
+    };
+    private static final long[][] PAWN_PUSHES = {
+            table(new int[][] {{-1, 0}}),
+            table(new int[][] {{1, 0}})
+    };
+    private static final int[] PAWN_START_ROWS = {Board.SIZE - 2, 1};
+
+    private LeaperAttacks() {
+    }
+
+    /**
+     * Returns squares attacked by a knight from given square
+     *
+     * @param square index of square
+     * @return bitboard of attacked squares
+     */
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    /**
+     * Returns squares attacked by a king from given square
+     *
+     * @param square index of square
+     * @return bitboard of attacked squares
+     */
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * Returns squares attacked (diagonally forward) by a pawn of given color from given square
+     *
+     * @param color  color of the pawn
+     * @param square index of square
+     * @return bitboard of attacked squares
+     */
+    public static long pawnAttacks(Color color, int square) {
+        return PAWN_ATTACKS[color.ordinal()][square];
+    }
+
+    /**
+     * Returns squares to which a pawn of given color can be pushed from given square on given occupancy.
+     * The double step from the starting row requires both squares in front of the pawn to be empty.
+     *
+     * @param color     color of the pawn
+     * @param square    index of square
+     * @param occupancy bitboard of all occupied squares
+     * @return bitboard of push targets
+     */
+    public static long pawnPushes(Color color, int square, long occupancy) {
+        long single = PAWN_PUSHES[color.ordinal()][square] & ~occupancy;
+        if (single == Bitboards.EMPTY || Bitboards.row(square) != PAWN_START_ROWS[color.ordinal()]) {
+            return single;
+        }
+        int next = Long.numberOfTrailingZeros(single);
+        return single | (PAWN_PUSHES[color.ordinal()][next] & ~occupancy);
+    }
+
+    /**
+     * Builds table of targets reachable by given shifts from every square
+     *
+     * @param shifts (row, column) shifts of the piece
+     * @return targets indexed by square
+     */
+    private static long[] table(int[][] shifts) {
+        long[] res = new long[SQUARES];
+        for (int square = 0; square < SQUARES; square++) {
+            for (int[] shift : shifts) {
+                int row = Bitboards.row(square) + shift[0];
+                int col = Bitboards.column(square) + shift[1];
+                if (Board.inRange(row, col)) {
+                    res[square] |= Bitboards.bit(Bitboards.square(row, col));
+                }
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,257 @@
+package cz.muni.fi.pb162.project.moves;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.Coordinates;
+import cz.muni.fi.pb162.project.PieceType;
+import cz.muni.fi.pb162.project.utils.Bitboards;
+
+/**
+ * Filter of chess moves of one side which would expose its own king.
+ * <p>
+ * When created, the filter computes once for the position the pieces checking the king,
+ * the squares on which a check can be blocked or the checker captured, the pieces pinned to the king
+ * and the squares attacked by the opponent. Moves are then decided by a few mask operations
+ * instead of playing them and generating all answers of the opponent.
+ * <p>
+ * Castle and en passant are decided by their own methods ({@link #allowsCastle(int, int)},
+ * {@link #allowsEnPassant(Board, int, int)}). If the side has no king, every move is allowed.
+ * <p>
+ * Filter may be reused for other positions by {@link #update(Board, Color)}, so move generation
+ * does not need to allocate a new one for every position.
+ *
+ * @author Adam Dzadon
+ */
+public final class LegalMoveFilter {
+
+    private static final long ALL = ~Bitboards.EMPTY;
+
+    private Color color;
+    private int kingSquare = Board.NO_SQUARE;
+    private long checkers;
+    private long checkMask = ALL;
+    private long pinned;
+    private long attackedByOpponent;
+
+    /**
+     * Creates a filter which allows every move, it has to be updated by {@link #update(Board, Color)} before use
+     */
+    public LegalMoveFilter() {
+    }
+
+    /**
+     * Creates a filter for moves of given color in the current position on given board
+     *
+     * @param board board with the position
+     * @param color color of side to move
+     */
+    public LegalMoveFilter(Board board, Color color) {
+        update(board, color);
+    }
+
+    /**
+     * Recomputes the filter for moves of given color in the current position on given board
+     *
+     * @param board board with the position
+     * @param color color of side to move
+     */
+    public void update(Board board, Color color) {
+        this.color = color;
+        kingSquare = board.getKingSquare(color);
+        if (kingSquare == Board.NO_SQUARE) {
+            checkers = Bitboards.EMPTY;
+            checkMask = ALL;
+            pinned = Bitboards.EMPTY;
+            attackedByOpponent = Bitboards.EMPTY;
+            return;
+        }
+
+        Color opponent = color.getOppositeColor();
+        long sliderCheckers = Bitboards.EMPTY;
+        long pinnedPieces = Bitboards.EMPTY;
+        for (long snipers = snipers(board, opponent); snipers != 0; snipers &= snipers - 1) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            long blockers = SlidingAttacks.between(kingSquare, sniper) & board.getOccupancy();
+            if (blockers == Bitboards.EMPTY) {
+                sliderCheckers |= Bitboards.bit(sniper);
+            } else if (Long.bitCount(blockers) == 1) {
+                pinnedPieces |= blockers & board.getOccupancy(color);
+            }
+        }
+        checkers = sliderCheckers | leaperCheckers(board, color);
+        pinned = pinnedPieces;
+        checkMask = computeCheckMask();
+        attackedByOpponent = attacksOf(board, opponent, board.getOccupancy() & ~Bitboards.bit(kingSquare));
+    }
+
+    /**
+     * Returns opponent's sliding pieces which would attack the king on an otherwise empty board
+     *
+     * @param board    board with the position
+     * @param opponent color of opponent
+     * @return bitboard of such pieces
+     */
+    private long snipers(Board board, Color opponent) {
+        long queens = board.getBitboard(opponent, PieceType.QUEEN);
+        long straight = board.getBitboard(opponent, PieceType.ROOK) | queens;
+        long diagonal = board.getBitboard(opponent, PieceType.BISHOP) | queens;
+        return (SlidingAttacks.straight(kingSquare, Bitboards.EMPTY) & straight)
+                | (SlidingAttacks.diagonal(kingSquare, Bitboards.EMPTY) & diagonal);
+    }
+
+    /**
+     * Returns opponent's pawns, knights and king attacking the king of given color
+     *
+     * @param board board with the position
+     * @param color color of the king
+     * @return bitboard of attacking pieces
+     */
+    private long leaperCheckers(Board board, Color color) {
+        Color opponent = color.getOppositeColor();
+        return (LeaperAttacks.pawnAttacks(color, kingSquare) & board.getBitboard(opponent, PieceType.PAWN))
+                | (LeaperAttacks.knight(kingSquare) & board.getBitboard(opponent, PieceType.KNIGHT))
+                | (LeaperAttacks.king(kingSquare) & board.getBitboard(opponent, PieceType.KING));
+    }
+
+    /**
+     * Computes squares to which a piece other than king has to move when the king is in check
+     *
+     * @return all squares if there is no check, checker and squares between it and the king
+     * if there is single check, no squares if there is double check
+     */
+    private long computeCheckMask() {
+        if (checkers == Bitboards.EMPTY) {
+            return ALL;
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return Bitboards.EMPTY;
+        }
+        return checkers | SlidingAttacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+    }
+
+    /**
+     * Computes all squares attacked by chess pieces of given color
+     *
+     * @param board     board with the position
+     * @param color     color of attacking pieces
+     * @param occupancy occupancy used to stop sliding pieces
+     * @return bitboard of attacked squares
+     */
+    public static long attacksOf(Board board, Color color, long occupancy) {
+        long res = Bitboards.EMPTY;
+        for (long rest = board.getBitboard(color, PieceType.PAWN); rest != 0; rest &= rest - 1) {
+            res |= LeaperAttacks.pawnAttacks(color, Long.numberOfTrailingZeros(rest));
+        }
+        for (long rest = board.getBitboard(color, PieceType.KNIGHT); rest != 0; rest &= rest - 1) {
+            res |= LeaperAttacks.knight(Long.numberOfTrailingZeros(rest));
+        }
+        for (long rest = board.getBitboard(color, PieceType.KING); rest != 0; rest &= rest - 1) {
+            res |= LeaperAttacks.king(Long.numberOfTrailingZeros(rest));
+        }
+        long queens = board.getBitboard(color, PieceType.QUEEN);
+        for (long rest = board.getBitboard(color, PieceType.BISHOP) | queens; rest != 0; rest &= rest - 1) {
+            res |= SlidingAttacks.diagonal(Long.numberOfTrailingZeros(rest), occupancy);
+        }
+        for (long rest = board.getBitboard(color, PieceType.ROOK) | queens; rest != 0; rest &= rest - 1) {
+            res |= SlidingAttacks.straight(Long.numberOfTrailingZeros(rest), occupancy);
+        }
+        return res;
+    }
+
+    /**
+     * Decides whether the king is in check
+     *
+     * @return true if the king is attacked
+     */
+    public boolean isCheck() {
+        return checkers != Bitboards.EMPTY;
+    }
+
+    /**
+     * Removes targets which would expose the king from given targets of a piece on given square.
+     * Must not be used for castle and en passant.
+     *
+     * @param from    index of square of moving piece
+     * @param targets bitboard of pseudo-legal targets
+     * @return bitboard of legal targets
+     */
+    public long filter(int from, long targets) {
+        if (kingSquare == Board.NO_SQUARE) {
+            return targets;
+        }
+        if (from == kingSquare) {
+            return targets & ~attackedByOpponent;
+        }
+        long res = targets & checkMask;
+        if (Bitboards.isSet(pinned, from)) {
+            res &= SlidingAttacks.line(kingSquare, from);
+        }
+        return res;
+    }
+
+    /**
+     * Decides whether move from first coordinates to second coordinates does not expose the king.
+     * Must not be used for castle and en passant.
+     *
+     * @param from coordinates of moving piece
+     * @param to   target coordinates
+     * @return true if the move is legal
+     */
+    public boolean allows(Coordinates from, Coordinates to) {
+        int target = Bitboards.square(to.letterNumber(), to.number());
+        return allows(Bitboards.square(from.letterNumber(), from.number()), target);
+    }
+
+    /**
+     * Decides whether move from first square to second square does not expose the king.
+     * Must not be used for castle and en passant.
+     *
+     * @param from index of square of moving piece
+     * @param to   index of target square
+     * @return true if the move is legal
+     */
+    public boolean allows(int from, int to) {
+        return filter(from, Bitboards.bit(to)) != 0;
+    }
+
+    /**
+     * Decides whether castle of the king to given square is legal: the king is not in check
+     * and does not pass through or arrive to an attacked square
+     *
+     * @param from index of square of the king
+     * @param to   index of target square of the king
+     * @return true if the castle is legal
+     */
+    public boolean allowsCastle(int from, int to) {
+        if (kingSquare == Board.NO_SQUARE) {
+            return true;
+        }
+        long way = SlidingAttacks.between(from, to) | Bitboards.bit(to);
+        return checkers == Bitboards.EMPTY && (way & attackedByOpponent) == Bitboards.EMPTY;
+    }
+
+    /**
+     * Decides whether en passant does not expose the king. Both pawns leave their row at once,
+     * so the king may be exposed along the row even if the capturing pawn is not pinned.
+     *
+     * @param board board with the position
+     * @param from  index of square of capturing pawn
+     * @param to    index of target square of capturing pawn
+     * @return true if the en passant is legal
+     */
+    public boolean allowsEnPassant(Board board, int from, int to) {
+        if (kingSquare == Board.NO_SQUARE) {
+            return true;
+        }
+        Color opponent = color.getOppositeColor();
+        long captured = Bitboards.bit(Bitboards.square(Bitboards.row(from), Bitboards.column(to)));
+        long occupancy = (board.getOccupancy() & ~Bitboards.bit(from) & ~captured) | Bitboards.bit(to);
+        long queens = board.getBitboard(opponent, PieceType.QUEEN);
+        long straight = board.getBitboard(opponent, PieceType.ROOK) | queens;
+        long diagonal = board.getBitboard(opponent, PieceType.BISHOP) | queens;
+        long attackers = (SlidingAttacks.straight(kingSquare, occupancy) & straight)
+                | (SlidingAttacks.diagonal(kingSquare, occupancy) & diagonal)
+                | (leaperCheckers(board, color) & ~captured);
+        return attackers == Bitboards.EMPTY;
+    }
+}
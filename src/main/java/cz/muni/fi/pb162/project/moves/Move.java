@@ -4,6 +4,7 @@ package cz.muni.fi.pb162.project.moves;
 import cz.muni.fi.pb162.project.Color;
 import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 import java.util.HashSet;
 import java.util.Set;
 import org.apache.commons.lang3.tuple.Pair;
@@ -32,6 +33,45 @@ public interface Move {
      */
     Set<Coordinates> getAllowedMoves(Game game, Coordinates position);
 
+    /**
+     * Appends all possible moves of a piece on a board to given list.
+     * The moves are the same as the ones of {@link #getAllowedMoves(Game, Coordinates)}, the default
+     * implementation converts them, table-driven movements generate them without any allocation.
+     *
+     * @param game A game instance with a board and pieces
+     * @param position Source position on the board with a piece to be moved
+     * @param moves A list to which the moves are appended.
+     */
+    default void generateMoves(Game game, Coordinates position, MoveList moves) {
+        int from = Bitboards.square(position.letterNumber(), position.number());
+        for (Coordinates target : getAllowedMoves(game, position)) {
+            int to = Bitboards.square(target.letterNumber(), target.number());
+            moves.add(PackedMove.classify(game.getBoard(), from, to));
+        }
+    }
+
+    /**
+     * Appends possible moves of a piece on a board which capture a piece or promote to given list,
+     * used by searches which resolve only captures. The default implementation generates all moves
+     * and drops the other ones, table-driven movements generate only captures.
+     *
+     * @param game A game instance with a board and pieces
+     * @param position Source position on the board with a piece to be moved
+     * @param moves A list to which the moves are appended.
+     */
+    default void generateCaptures(Game game, Coordinates position, MoveList moves) {
+        int start = moves.size();
+        generateMoves(game, position, moves);
+        int kept = start;
+        for (int i = start; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+                moves.set(kept++, move);
+            }
+        }
+        moves.truncate(kept);
+    }
+
     /**
      * A helper static method that returns possible diagonal shifts
      * Set of Pairs Integers. These Integers representing Diagonal shifts.
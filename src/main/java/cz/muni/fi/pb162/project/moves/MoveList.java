@@ -0,0 +1,119 @@
+package cz.muni.fi.pb162.project.moves;
+
+import cz.muni.fi.pb162.project.utils.Bitboards;
+
+/**
+ * Reusable list of moves packed into primitive ints (see {@link PackedMove}),
+ * so moves can be generated without any garbage.
+ * Search keeps one list per ply (see {@link #buffers(int)}) and clears it before generating into it.
+ * <p>
+ * List holds at most {@link #CAPACITY} moves, which is above the number of pseudo-legal moves
+ * of any reachable chess position (promotions are generated as one move per target square).
+ *
+ * @author Adam Dzadon
+ */
+public final class MoveList {
+
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    /**
+     * Creates one list for every ply of a search
+     *
+     * @param plies number of plies
+     * @return array of empty lists
+     */
+    public static MoveList[] buffers(int plies) {
+        MoveList[] res = new MoveList[plies];
+        for (int ply = 0; ply < plies; ply++) {
+            res[ply] = new MoveList();
+        }
+        return res;
+    }
+
+    /**
+     * Returns number of moves in the list
+     *
+     * @return number of moves
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns packed move on given index
+     *
+     * @param index index of move
+     * @return packed move
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Replaces packed move on given index
+     *
+     * @param index index of move
+     * @param move  packed move
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Removes all moves
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Removes all moves from given index on
+     *
+     * @param newSize number of moves to keep
+     */
+    public void truncate(int newSize) {
+        size = Math.min(size, newSize);
+    }
+
+    /**
+     * Appends packed move
+     *
+     * @param move packed move
+     * @throws IllegalStateException if the list already holds {@link #CAPACITY} moves
+     */
+    public void add(int move) {
+        if (size == CAPACITY) {
+            throw new IllegalStateException("Move list is full");
+        }
+        moves[size++] = move;
+    }
+
+    /**
+     * Appends move from one square to another
+     *
+     * @param from index of source square
+     * @param to   index of target square
+     * @param code kind of the move (see {@link PackedMove})
+     */
+    public void add(int from, int to, int code) {
+        add(PackedMove.of(from, to, code));
+    }
+
+    /**
+     * Appends moves from given square to every square of given bitboard,
+     * moves to squares of opponent's pieces are marked as captures
+     *
+     * @param from      index of source square
+     * @param targets   bitboard of target squares
+     * @param opponents bitboard of opponent's pieces
+     */
+    public void addTargets(int from, long targets, long opponents) {
+        for (long rest = targets; rest != 0; rest &= rest - 1) {
+            int to = Long.numberOfTrailingZeros(rest);
+            add(from, to, Bitboards.isSet(opponents, to) ? PackedMove.CAPTURE : PackedMove.QUIET);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package cz.muni.fi.pb162.project.moves;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Coordinates;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.PieceType;
+import cz.muni.fi.pb162.project.utils.Bitboards;
+import cz.muni.fi.pb162.project.utils.BoardNotation;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Utility class for moves packed into 16 bits: {@code to | from << 6 | code << 12}.
+ * <p>
+ * {@code from} and {@code to} are indices of squares (see {@link Bitboards#square(int, int)}),
+ * the 4-bit code tells the kind of the move. Bit {@link #CAPTURE} marks captures, bit {@link #PROMOTION}
+ * marks promotions, in which case the lowest two bits of the code select the new piece
+ * (knight, bishop, rook or queen). Packed move fits into a {@code short} and is never equal to {@link #NONE},
+ * as source and target of a move always differ.
+ *
+ * @author Adam Dzadon
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PAWN_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+
+    private static final int SQUARE_BITS = 6;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+    private static final int CODE_SHIFT = 2 * SQUARE_BITS;
+    private static final int MOVE_MASK = 0xFFFF;
+    private static final int PROMOTION_PIECE_MASK = 3;
+    private static final PieceType[] PROMOTION_TYPES = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN
+    };
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs move from one square to another
+     *
+     * @param from index of source square
+     * @param to   index of target square
+     * @param code kind of the move
+     * @return packed move
+     */
+    public static int of(int from, int to, int code) {
+        return to | from << SQUARE_BITS | code << CODE_SHIFT;
+    }
+
+    /**
+     * Packs move from one coordinates to another
+     *
+     * @param from source coordinates
+     * @param to   target coordinates
+     * @param code kind of the move
+     * @return packed move
+     */
+    public static int of(Coordinates from, Coordinates to, int code) {
+        return of(Bitboards.square(from.letterNumber(), from.number()),
+                Bitboards.square(to.letterNumber(), to.number()), code);
+    }
+
+    /**
+     * Packs promotion of pawn
+     *
+     * @param from      index of source square
+     * @param to        index of target square
+     * @param pieceType type of the new piece (knight, bishop, rook or queen)
+     * @param capture   true if the promotion captures a piece
+     * @return packed move
+     */
+    public static int promotion(int from, int to, PieceType pieceType, boolean capture) {
+        int code = PROMOTION | (capture ? CAPTURE : 0);
+        for (int i = 0; i < PROMOTION_TYPES.length; i++) {
+            if (PROMOTION_TYPES[i] == pieceType) {
+                return of(from, to, code | i);
+            }
+        }
+        throw new IllegalArgumentException("Pawn cannot be promoted to " + pieceType);
+    }
+
+    /**
+     * Packs move from one square to another and finds out its kind from the current position on given board.
+     * Promotions are packed as promotions to queen.
+     *
+     * @param board board with the position
+     * @param from  index of source square
+     * @param to    index of target square
+     * @return packed move
+     */
+    public static int classify(Board board, int from, int to) {
+        Piece piece = board.getPiece(from);
+        boolean capture = board.getPiece(to) != null;
+        int code = capture ? CAPTURE : QUIET;
+        if (piece == null) {
+            return of(from, to, code);
+        }
+        int columns = Bitboards.column(to) - Bitboards.column(from);
+        if (piece.getPieceType() == PieceType.KING && Math.abs(columns) > 1) {
+            return of(from, to, columns > 0 ? KING_CASTLE : QUEEN_CASTLE);
+        }
+        if (piece.getPieceType() != PieceType.PAWN) {
+            return of(from, to, code);
+        }
+        int row = Bitboards.row(to);
+        if (row == 0 || row == Board.SIZE - 1) {
+            return promotion(from, to, PieceType.QUEEN, capture);
+        }
+        if (columns != 0 && !capture) {
+            return of(from, to, EN_PASSANT);
+        }
+        return of(from, to, Math.abs(row - Bitboards.row(from)) == 2 ? DOUBLE_PAWN_PUSH : code);
+    }
+
+    /**
+     * Returns source square of packed move
+     *
+     * @param move packed move
+     * @return index of source square
+     */
+    public static int from(int move) {
+        return (move >>> SQUARE_BITS) & SQUARE_MASK;
+    }
+
+    /**
+     * Returns target square of packed move
+     *
+     * @param move packed move
+     * @return index of target square
+     */
+    public static int to(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Returns kind of packed move
+     *
+     * @param move packed move
+     * @return code of the move
+     */
+    public static int code(int move) {
+        return (move & MOVE_MASK) >>> CODE_SHIFT;
+    }
+
+    /**
+     * Decides whether packed move captures a piece (including en passant)
+     *
+     * @param move packed move
+     * @return true if the move is a capture
+     */
+    public static boolean isCapture(int move) {
+        return (code(move) & CAPTURE) != 0;
+    }
+
+    /**
+     * Decides whether packed move is a promotion
+     *
+     * @param move packed move
+     * @return true if the move is a promotion
+     */
+    public static boolean isPromotion(int move) {
+        return (code(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * Decides whether packed move is a castle
+     *
+     * @param move packed move
+     * @return true if the move is a castle
+     */
+    public static boolean isCastle(int move) {
+        return code(move) == KING_CASTLE || code(move) == QUEEN_CASTLE;
+    }
+
+    /**
+     * Decides whether packed move is en passant
+     *
+     * @param move packed move
+     * @return true if the move is en passant
+     */
+    public static boolean isEnPassant(int move) {
+        return code(move) == EN_PASSANT;
+    }
+
+    /**
+     * Returns type of piece to which pawn is promoted by packed move
+     *
+     * @param move packed move
+     * @return type of the new piece or null if the move is not a promotion
+     */
+    public static PieceType promotionType(int move) {
+        return isPromotion(move) ? PROMOTION_TYPES[code(move) & PROMOTION_PIECE_MASK] : null;
+    }
+
+    /**
+     * Returns source coordinates of packed move
+     *
+     * @param move packed move
+     * @return source coordinates
+     */
+    public static Coordinates fromCoordinates(int move) {
+        return Coordinates.of(Bitboards.row(from(move)), Bitboards.column(from(move)));
+    }
+
+    /**
+     * Returns target coordinates of packed move
+     *
+     * @param move packed move
+     * @return target coordinates
+     */
+    public static Coordinates toCoordinates(int move) {
+        return Coordinates.of(Bitboards.row(to(move)), Bitboards.column(to(move)));
+    }
+
+    /**
+     * Converts packed move to pair of coordinates
+     *
+     * @param move packed move
+     * @return pair of source and target coordinates or null for {@link #NONE}
+     */
+    public static Pair<Coordinates, Coordinates> toPair(int move) {
+        if (move == NONE) {
+            return null;
+        }
+        return Pair.of(fromCoordinates(move), toCoordinates(move));
+    }
+
+    /**
+     * Converts packed move to {@code short}
+     *
+     * @param move packed move
+     * @return the move as short
+     */
+    public static short toShort(int move) {
+        return (short) move;
+    }
+
+    /**
+     * Converts packed move stored as {@code short} back to {@code int}
+     *
+     * @param move packed move stored as short
+     * @return packed move
+     */
+    public static int fromShort(short move) {
+        return Short.toUnsignedInt(move);
+    }
+
+    /**
+     * Returns notation of packed move, source and target in notation of {@link BoardNotation}
+     * followed by letter of new piece for promotions (e.g. "b7a8q")
+     *
+     * @param move packed move
+     * @return notation of the move
+     */
+    public static String toString(int move) {
+        String res = BoardNotation.getNotationOfCoordinates(Bitboards.row(from(move)), Bitboards.column(from(move)))
+                + BoardNotation.getNotationOfCoordinates(Bitboards.row(to(move)), Bitboards.column(to(move)));
+        PieceType promotion = promotionType(move);
+        return promotion == null ? res : res + "nbrq".charAt(code(move) & PROMOTION_PIECE_MASK);
+    }
+}
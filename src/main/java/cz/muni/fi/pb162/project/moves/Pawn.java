@@ -6,6 +6,7 @@ import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
 import cz.muni.fi.pb162.project.Piece;
 import cz.muni.fi.pb162.project.PieceType;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.HashSet;
@@ -13,11 +14,15 @@ import java.util.Set;
 
 /**
  * Movement of a chess pawn.
+ * Pushes and captures are looked up in {@link LeaperAttacks} tables.
  *
  * @author Alzbeta Strompova
  */
 public class Pawn implements Move {
 
+    private static final long ROW_MASK = (1L << Board.SIZE) - 1;
+    private static final long LAST_ROWS = ROW_MASK | ROW_MASK << (Board.SIZE * (Board.SIZE - 1));
+
     /**
      * Decides whether the last move allows us to perform en passant move
      *
@@ -32,74 +37,98 @@ public class Pawn implements Move {
                 && Math.abs(me.number() - to.number()) == 1;
     }
 
-    @Override
-    public Set<Coordinates> getAllowedMoves(Game game, Coordinates position) {
-        var board = game.getBoard();
-        var result = new HashSet<Coordinates>();
-        var piece = board.getPiece(position);
-        if (piece != null && piece.getColor().equals(Color.WHITE)) {
-            movesByWhite(board, position, result);
-        }
-        if (piece != null && piece.getColor().equals(Color.BLACK)) {
-            movesByBlack(board, position, result);
-        }
-
+    /**
+     * Returns target of en passant capture of pawn on given position
+     *
+     * @param game     game instance
+     * @param position position of the pawn
+     * @return target coordinates or null if en passant is not possible
+     */
+    private Coordinates enPassantTarget(Game game, Coordinates position) {
         Pair<Coordinates, Coordinates> lastMove = game.getLastMove();
-
         if (lastMove == null) {
-            return result;
+            return null;
         }
 
         Coordinates from = lastMove.getLeft();
         Coordinates to = lastMove.getRight();
         Piece possiblePawn = game.getBoard().getPiece(to);
-
-        if (possiblePawn == null) {
-            return result;
+        if (possiblePawn == null || possiblePawn.getPieceType() != PieceType.PAWN || !isEnPassant(from, to, position)) {
+            return null;
         }
+        return Coordinates.of((from.letterNumber() + to.letterNumber()) / 2, from.number());
+    }
+
+    /**
+     * Computes squares to which given pawn can be pushed or capture (without en passant)
+     *
+     * @param board  board with the position
+     * @param color  color of the pawn
+     * @param square index of square of the pawn
+     * @return bitboard of target squares
+     */
+    private static long targets(Board board, Color color, int square) {
+        return LeaperAttacks.pawnPushes(color, square, board.getOccupancy())
+                | (LeaperAttacks.pawnAttacks(color, square) & board.getOccupancy(color.getOppositeColor()));
+    }
 
-        if (possiblePawn.getPieceType() == PieceType.PAWN && isEnPassant(from, to, position)) {
-            int letterNumber = (from.letterNumber() + to.letterNumber()) / 2;
-            int number = from.number();
-            result.add(new Coordinates(letterNumber, number));
+    @Override
+    public Set<Coordinates> getAllowedMoves(Game game, Coordinates position) {
+        var board = game.getBoard();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return new HashSet<>();
         }
 
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        var result = Bitboards.toCoordinates(targets(board, piece.getColor(), square));
+        Coordinates enPassant = enPassantTarget(game, position);
+        if (enPassant != null) {
+            result.add(enPassant);
+        }
         return result;
     }
 
-    private void movesByWhite(Board board, Coordinates position, HashSet<Coordinates> result) {
-        if (board.isEmpty(position.letterNumber() - 1, position.number())) {
-            result.add(new Coordinates(position.letterNumber() - 1, position.number()));
-        }
-        if (position.letterNumber() == Board.SIZE - 2 && board.isEmpty(position.letterNumber() - 2, position.number())) {
-            result.add(new Coordinates(position.letterNumber() - 2, position.number()));
-        }
-        if (!board.isEmpty(position.letterNumber() - 1, position.number() + 1)
-                && board.getPiece(position.letterNumber() - 1, position.number() + 1).getColor().equals(Color.BLACK)) {
-            result.add(new Coordinates(position.letterNumber() - 1, position.number() + 1));
-        }
-        if (!board.isEmpty(position.letterNumber() - 1, position.number() - 1)
-                && board.getPiece(position.letterNumber() - 1, position.number() - 1).getColor().equals(Color.BLACK)) {
-            result.add(new Coordinates(position.letterNumber() - 1, position.number() - 1));
-        }
+    @Override
+    public void generateMoves(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, false);
+    }
+
+    /**
+     * Generates captures, en passant and pushes to the last row (promotions)
+     */
+    @Override
+    public void generateCaptures(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, true);
     }
 
-    private void movesByBlack(Board board, Coordinates position, HashSet<Coordinates> result) {
-        if (board.isEmpty(position.letterNumber() + 1, position.number())) {
-            result.add(new Coordinates(position.letterNumber() + 1, position.number()));
+    /**
+     * Appends moves of pawn on given position, only captures and promotions if asked
+     *
+     * @param game         game instance
+     * @param position     position of the pawn
+     * @param moves        list to which the moves are appended
+     * @param capturesOnly true to append only captures and promotions
+     */
+    private void generate(Game game, Coordinates position, MoveList moves, boolean capturesOnly) {
+        var board = game.getBoard();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return;
         }
 
-        if (position.letterNumber() == 1 && board.isEmpty(position.letterNumber() + 2, position.number())) {
-            result.add(new Coordinates(position.letterNumber() + 2, position.number()));
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        long targets = targets(board, piece.getColor(), square);
+        if (capturesOnly) {
+            targets &= board.getOccupancy(piece.getColor().getOppositeColor()) | LAST_ROWS;
         }
-        if (!board.isEmpty(position.letterNumber() + 1, position.number() + 1)
-                && board.getPiece(position.letterNumber() + 1, position.number() + 1).getColor().equals(Color.WHITE)) {
-            result.add(new Coordinates(position.letterNumber() + 1, position.number() + 1));
+        for (long rest = targets; rest != 0; rest &= rest - 1) {
+            moves.add(PackedMove.classify(board, square, Long.numberOfTrailingZeros(rest)));
         }
-        if (!board.isEmpty(position.letterNumber() + 1, position.number() - 1)
-                && board.getPiece(position.letterNumber() + 1, position.number() - 1).getColor().equals(Color.WHITE)) {
-            result.add(new Coordinates(position.letterNumber() + 1, position.number() - 1));
+        Coordinates enPassant = enPassantTarget(game, position);
+        if (enPassant != null) {
+            int to = Bitboards.square(enPassant.letterNumber(), enPassant.number());
+            moves.add(square, to, PackedMove.EN_PASSANT);
         }
     }
 }
-
@@ -0,0 +1,280 @@
+package cz.muni.fi.pb162.project.moves;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.utils.Bitboards;
+
+/**
+ * Precomputed attack tables of sliding pieces (rooks, bishops and queens) indexed with magic bitboards.
+ * <p>
+ * For every square we keep a mask of squares whose occupancy matters (rays without the last square),
+ * a magic multiplier and a table of attacks. The attacks of a sliding piece from given square
+ * on given occupancy are then answered by one multiplication, one shift and one table lookup.
+ * Magic numbers were found by random search and are verified when the tables are filled on class load.
+ *
+ * @author Adam Dzadon
+ */
+public final class SlidingAttacks {
+
+    private static final int SQUARES = Board.SIZE * Board.SIZE;
+    private static final int[][] STRAIGHT_DIRECTIONS = {{0, 1}, {0, -1}, {1, 0}, {-1, 0}};
+    private static final int[][] DIAGONAL_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+    private static final long[] STRAIGHT_MAGICS = {
+            0x0880004000801022L, 0x4440200440021000L, 0x088008D002200080L, 0x8480041000480080L,
+            0x1080040068008022L, 0x2200010842004410L, 0x1500008409000200L, 0x020000804029040AL,
+            0x4800800040008020L, 0x2082002200410082L, 0x0301001041082000L, 0xC041808008003000L,
+            0x00A4800400800800L, 0x0010800200800400L, 0x0184800100020080L, 0x0040800040802100L,
+            0x4000848004400060L, 0x8684444010002000L, 0x2006820010204200L, 0x0000090021001000L,
+            0x2009010008001004L, 0x900C008004020080L, 0x4108040001100288L, 0x5020220000804114L,
+            0x0080034240002000L, 0x03D0104040002000L, 0x4000100480200480L, 0x0040401200200A00L,
+            0x0008008080040008L, 0x0001000300080400L, 0x4CE1080400421001L, 0x0860804200108124L,
+            0x1000804000800020L, 0x2020100020400040L, 0x4030104202002080L, 0x8048048008801000L,
+            0x40A0040080800802L, 0x0204020080800400L, 0x0500080104000290L, 0xA004012092000044L,
+            0x0002008100420020L, 0x000150002008C000L, 0x090C410020090010L, 0x88422200400A0011L,
+            0x0008002040040400L, 0x0002001004020008L, 0x021600C108020004L, 0x4204410080420004L,
+            0x0040800821004100L, 0x0200842000400480L, 0x0020620140B68200L, 0x80100008E1510100L,
+            0x0080800801040180L, 0x0803000804000300L, 0x0000080162300400L, 0x4002108041040200L,
+            0x8200102040800101L, 0x4602400016210481L, 0x08000A0040102082L, 0x0410210108100005L,
+            0x1011001008000423L, 0x11B1000400020801L, 0x0000012200881004L, 0x000008204401008AL
+    };
+
+    private static final long[] DIAGONAL_MAGICS = {
+            0x4202A042040A4082L, 0x2490101210802280L, 0x0010442888200400L, 0x0014410022A00800L,
+            0x2002021008050108L, 0x0101100804480000L, 0x4002011028440022L, 0x0003040118881400L,
+            0x0000120410688200L, 0x4800608801004080L, 0x040C502092045008L, 0x0800280A01A01000L,
+            0x2008020210008000L, 0x2010020804040220L, 0x0220410402200600L, 0x1820020104010410L,
+            0x0020081020016100L, 0x2020022501042506L, 0x000100081806A081L, 0x0008024082830020L,
+            0x010A011012101020L, 0x1000400808121008L, 0x604421108C040200L, 0x008021448C012800L,
+            0x0204402410020880L, 0x4012200462480200L, 0x0800300098268218L, 0x4041080014004010L,
+            0xA080840002802000L, 0x08100C8141080100L, 0x2004040030920104L, 0x0204002100412C01L,
+            0x0004035804401090L, 0x0084046201141050L, 0x0002028840500840L, 0x0001202020080080L,
+            0x0494200200002080L, 0x0020204080090080L, 0x8008408314028823L, 0x000A008100260440L,
+            0x2040A22020521000L, 0x0204008884210818L, 0x010202020900AA10L, 0x000006C010408200L,
+            0x0204088100400404L, 0x00C0010243000480L, 0x00E83000820438A1L, 0x400C080241004854L,
+            0x280D010120A00000L, 0x800B009084600040L, 0x0040829448080000L, 0x0148040842022000L,
+            0x8400088620820008L, 0x0000582028A48040L, 0x4005241034030804L, 0x002042020A002111L,
+            0x1132002128080400L, 0x2004010411151880L, 0x0018840A02069200L, 0x0150010080411080L,
+            0x0200044211021201L, 0x0008004104481080L, 0x1000200802D80440L, 0x4108020088210100L
+    };
+
+    private static final Table STRAIGHT = new Table(STRAIGHT_DIRECTIONS, STRAIGHT_MAGICS);
+    private static final Table DIAGONAL = new Table(DIAGONAL_DIRECTIONS, DIAGONAL_MAGICS);
+    private static final long[][] RANGE_MASKS = rangeMasks();
+    private static final long[][] BETWEEN = new long[SQUARES][SQUARES];
+    private static final long[][] LINES = new long[SQUARES][SQUARES];
+
+    static {
+        for (int from = 0; from < SQUARES; from++) {
+            for (int to = 0; to < SQUARES; to++) {
+                long target = Bitboards.bit(to);
+                if ((straight(from, Bitboards.EMPTY) & target) != 0) {
+                    BETWEEN[from][to] = straight(from, target) & straight(to, Bitboards.bit(from));
+                    LINES[from][to] = (straight(from, Bitboards.EMPTY) & straight(to, Bitboards.EMPTY))
+                            | Bitboards.bit(from) | target;
+                } else if ((diagonal(from, Bitboards.EMPTY) & target) != 0) {
+                    BETWEEN[from][to] = diagonal(from, target) & diagonal(to, Bitboards.bit(from));
+                    LINES[from][to] = (diagonal(from, Bitboards.EMPTY) & diagonal(to, Bitboards.EMPTY))
+                            | Bitboards.bit(from) | target;
+                }
+            }
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * Returns squares attacked in straight directions (as a rook) from given square
+     *
+     * @param square    index of square of the attacker
+     * @param occupancy bitboard of all occupied squares
+     * @return bitboard of attacked squares, including the first blocker in each direction
+     */
+    public static long straight(int square, long occupancy) {
+        return STRAIGHT.attacks(square, occupancy);
+    }
+
+    /**
+     * Returns squares attacked in diagonal directions (as a bishop) from given square
+     *
+     * @param square    index of square of the attacker
+     * @param occupancy bitboard of all occupied squares
+     * @return bitboard of attacked squares, including the first blocker in each direction
+     */
+    public static long diagonal(int square, long occupancy) {
+        return DIAGONAL.attacks(square, occupancy);
+    }
+
+    /**
+     * Returns squares attacked in both straight and diagonal directions (as a queen) from given square
+     *
+     * @param square    index of square of the attacker
+     * @param occupancy bitboard of all occupied squares
+     * @return bitboard of attacked squares, including the first blocker in each direction
+     */
+    public static long queen(int square, long occupancy) {
+        return straight(square, occupancy) | diagonal(square, occupancy);
+    }
+
+    /**
+     * Returns squares which are at most given number of king steps away from given square.
+     * Along a ray of a sliding piece this is exactly the number of squares travelled.
+     *
+     * @param square index of square
+     * @param range  max distance
+     * @return bitboard of squares within given distance
+     */
+    public static long withinRange(int square, int range) {
+        if (range >= Board.SIZE - 1) {
+            return ~Bitboards.EMPTY;
+        }
+        return RANGE_MASKS[square][Math.max(range, 0)];
+    }
+
+    /**
+     * Returns squares strictly between two squares lying on common straight or diagonal line
+     *
+     * @param from index of first square
+     * @param to   index of second square
+     * @return bitboard of squares between, empty if the squares do not share a line
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Returns the whole line (from edge to edge of the board) going through two squares
+     *
+     * @param from index of first square
+     * @param to   index of second square
+     * @return bitboard of the line, empty if the squares do not share a line
+     */
+    public static long line(int from, int to) {
+        return LINES[from][to];
+    }
+
+    /**
+     * Computes squares of rays from given square on an empty board by walking them square by square.
+     * Used only to fill the tables.
+     *
+     * @param square     index of square
+     * @param directions directions of rays
+     * @param edges      whether the last square of each ray should be included
+     * @return bitboard of squares on the rays
+     */
+    private static long walk(int square, int[][] directions, boolean edges) {
+        long res = Bitboards.EMPTY;
+        for (int[] direction : directions) {
+            int row = Bitboards.row(square) + direction[0];
+            int col = Bitboards.column(square) + direction[1];
+            while (Board.inRange(row, col)
+                    && (edges || Board.inRange(row + direction[0], col + direction[1]))) {
+                res |= Bitboards.bit(Bitboards.square(row, col));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Computes attacks from given square on given occupancy ray by ray: each ray is cut
+     * behind its first blocker, which is the nearest set bit in the direction of the ray.
+     * Used only to fill the tables.
+     *
+     * @param square     index of square
+     * @param occupancy  bitboard of occupied squares
+     * @param directions directions of rays
+     * @param rays       rays of all squares indexed by direction and square
+     * @return bitboard of attacked squares
+     */
+    private static long rayAttacks(int square, long occupancy, int[][] directions, long[][] rays) {
+        long res = Bitboards.EMPTY;
+        for (int i = 0; i < directions.length; i++) {
+            long ray = rays[i][square];
+            long blockers = ray & occupancy;
+            if (blockers != Bitboards.EMPTY) {
+                boolean increasing = directions[i][0] * Board.SIZE + directions[i][1] > 0;
+                int blocker = increasing
+                        ? Long.numberOfTrailingZeros(blockers)
+                        : Long.SIZE - 1 - Long.numberOfLeadingZeros(blockers);
+                ray &= ~rays[i][blocker];
+            }
+            res |= ray;
+        }
+        return res;
+    }
+
+    /**
+     * Computes masks of squares within given king distance of every square
+     *
+     * @return masks indexed by square and distance
+     */
+    private static long[][] rangeMasks() {
+        long[][] res = new long[SQUARES][Board.SIZE];
+        for (int from = 0; from < SQUARES; from++) {
+            for (int to = 0; to < SQUARES; to++) {
+                int distance = Math.max(Math.abs(Bitboards.row(from) - Bitboards.row(to)),
+                        Math.abs(Bitboards.column(from) - Bitboards.column(to)));
+                for (int range = distance; range < Board.SIZE; range++) {
+                    res[from][range] |= Bitboards.bit(to);
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Magic bitboard table for one kind of sliding movement
+     *
+     * @author Adam Dzadon
+     */
+    private static final class Table {
+
+        private final long[] masks = new long[SQUARES];
+        private final long[] magics;
+        private final int[] shifts = new int[SQUARES];
+        private final long[][] attacks = new long[SQUARES][];
+
+        private Table(int[][] directions, long[] magics) {
+            this.magics = magics;
+            long[][] rays = new long[directions.length][SQUARES];
+            for (int square = 0; square < SQUARES; square++) {
+                for (int i = 0; i < directions.length; i++) {
+                    rays[i][square] = walk(square, new int[][] {directions[i]}, true);
+                }
+            }
+            for (int square = 0; square < SQUARES; square++) {
+                masks[square] = walk(square, directions, false);
+                shifts[square] = Long.SIZE - Long.bitCount(masks[square]);
+                attacks[square] = fill(square, directions, rays);
+            }
+        }
+
+        private long attacks(int square, long occupancy) {
+            return attacks[square][(int) (((occupancy & masks[square]) * magics[square]) >>> shifts[square])];
+        }
+
+        /**
+         * Enumerates all subsets of the mask of given square and stores their attacks
+         * on indices given by the magic of the square
+         */
+        private long[] fill(int square, int[][] directions, long[][] rays) {
+            long mask = masks[square];
+            long[] table = new long[1 << Long.bitCount(mask)];
+            boolean[] used = new boolean[table.length];
+            long subset = Bitboards.EMPTY;
+            do {
+                long reference = rayAttacks(square, subset, directions, rays);
+                int index = (int) ((subset * magics[square]) >>> shifts[square]);
+                if (used[index] && table[index] != reference) {
+                    throw new IllegalStateException("Invalid magic of square " + square);
+                }
+                used[index] = true;
+                table[index] = reference;
+                subset = (subset - mask) & mask;
+            } while (subset != Bitboards.EMPTY);
+            return table;
+        }
+    }
+}
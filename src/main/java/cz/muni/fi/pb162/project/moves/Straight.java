@@ -3,13 +3,14 @@ package cz.muni.fi.pb162.project.moves;
 import cz.muni.fi.pb162.project.Board;
 import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
-import java.util.Arrays;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 import java.util.HashSet;
 import java.util.Set;
-import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A generic movement in the straight direction (forth, back, left, and right).
+ * Targets are looked up in {@link SlidingAttacks} tables.
  *
  * @author Alzbeta Strompova
  */
@@ -35,34 +36,57 @@ public class Straight implements Move {
     @Override
     public Set<Coordinates> getAllowedMoves(Game game, Coordinates position) {
         var board = game.getBoard();
-        var result = new HashSet<Coordinates>();
-        var color = board.getPiece(position).getColor();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return new HashSet<>();
+        }
+
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        return Bitboards.toCoordinates(targets(board, piece, square));
+    }
 
-        var coordinates = new HashSet<>(Arrays.asList(
-                Pair.of(0, 1),
-                Pair.of(0, -1),
-                Pair.of(1, 0),
-                Pair.of(-1, 0)));
+    @Override
+    public void generateMoves(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, false);
+    }
 
-        for (Pair<Integer, Integer> movement : coordinates) {
-            for (int i = 1; i <= maxRange; i++) {
-                var left = position.letterNumber() + i * movement.getLeft();
-                var right = position.number() + i * movement.getRight();
-                var coordinate = new Coordinates(left, right);
-                if (!Board.inRange(coordinate)) {
-                    break;
-                }
-                if (board.getPiece(left, right) == null) {
-                    result.add(coordinate);
-                } else {
-                    if (color.getOppositeColor().equals(board.getPiece(left, right).getColor())) {
-                        result.add(coordinate);
-                    }
-                    break;
-                }
-            }
+    @Override
+    public void generateCaptures(Game game, Coordinates position, MoveList moves) {
+        generate(game, position, moves, true);
+    }
+
+    /**
+     * Appends moves of piece on given position, only the ones to squares of opponent's pieces if asked
+     *
+     * @param game         game instance
+     * @param position     position of the piece
+     * @param moves        list to which the moves are appended
+     * @param capturesOnly true to append only captures
+     */
+    private void generate(Game game, Coordinates position, MoveList moves, boolean capturesOnly) {
+        var board = game.getBoard();
+        var piece = board.getPiece(position);
+        if (piece == null) {
+            return;
         }
-        return result;
+
+        int square = Bitboards.square(position.letterNumber(), position.number());
+        long opponents = board.getOccupancy(piece.getColor().getOppositeColor());
+        long targets = targets(board, piece, square);
+        moves.addTargets(square, capturesOnly ? targets & opponents : targets, opponents);
     }
 
+    /**
+     * Computes squares to which given piece can move from given square
+     *
+     * @param board  board with the position
+     * @param piece  moving piece
+     * @param square index of square of the piece
+     * @return bitboard of target squares
+     */
+    private long targets(Board board, Piece piece, int square) {
+        return SlidingAttacks.straight(square, board.getOccupancy())
+                & SlidingAttacks.withinRange(square, maxRange)
+                & ~board.getOccupancy(piece.getColor());
+    }
 }
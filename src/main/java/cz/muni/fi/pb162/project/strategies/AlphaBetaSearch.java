@@ -0,0 +1,438 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.PieceType;
+import cz.muni.fi.pb162.project.moves.MoveList;
+import cz.muni.fi.pb162.project.moves.PackedMove;
+
+/**
+ * Negamax search with alpha-beta pruning over positions of one game.
+ * <p>
+ * Search is driven by iterative deepening: depth is increased by one until the search runs out
+ * of its time or node budget, and the best move of the last completed iteration is kept.
+ * Scores are from the view of player on the move. Leaves are extended by {@link Quiescence}
+ * and scored by {@link Evaluator}, the side which is mated at ply {@code p} gets {@code -MATE + p},
+ * stalemate is scored as 0.
+ * Moves of every node are searched in the order given by {@link MoveOrderer}.
+ * Principal variation search, null move pruning and late move reductions can be turned on
+ * by {@link SearchOptions}.
+ * <p>
+ * Searched game is mutated by {@link Game#makeMove(int)} and
+ * {@link Game#unmakeMove()}, so it must not be used by anyone else while the search is running.
+ *
+ * @author Adam Dzadon
+ */
+public final class AlphaBetaSearch {
+
+    public static final int MATE = 1_000_000;
+    public static final int INFINITY = MATE + 1;
+    public static final int MAX_PLY = 128;
+    public static final long UNLIMITED = 0L;
+
+    private static final int NO_SCORE = Integer.MIN_VALUE;
+    private static final long CHECK_INTERVAL = 1024L;
+
+    private final Game game;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final Quiescence quiescence;
+    private final SearchOptions options;
+    private final MoveList[] moves = MoveList.buffers(MAX_PLY + 1);
+    private final boolean[] nullMoves = new boolean[MAX_PLY + 1];
+    private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+    private long nodes;
+    private long nodeLimit = Long.MAX_VALUE;
+    private long deadline;
+    private long nextCheck;
+    private boolean timed;
+    private volatile boolean stopped;
+    private int bestMove = TranspositionTable.NO_MOVE;
+    private int bestScore;
+    private int completedDepth;
+    private long elapsedNanos;
+    private long cutoffs;
+    private long firstMoveCutoffs;
+    private long tableProbes;
+    private long tableHits;
+
+    /**
+     * Creates search of given game evaluating positions by {@link MaterialEvaluator}
+     *
+     * @param game  game whose current position is searched
+     * @param table transposition table used by the search
+     */
+    public AlphaBetaSearch(Game game, TranspositionTable table) {
+        this(game, table, new MaterialEvaluator());
+    }
+
+    /**
+     * Creates plain alpha-beta search of given game (see {@link SearchOptions#ALPHA_BETA})
+     *
+     * @param game      game whose current position is searched
+     * @param table     transposition table used by the search
+     * @param evaluator evaluation of leaf positions in centipawns
+     */
+    public AlphaBetaSearch(Game game, TranspositionTable table, Evaluator evaluator) {
+        this(game, table, evaluator, SearchOptions.ALPHA_BETA);
+    }
+
+    /**
+     * Creates search of given game
+     *
+     * @param game      game whose current position is searched
+     * @param table     transposition table used by the search
+     * @param evaluator evaluation of leaf positions in centipawns
+     * @param options   pruning and reductions of the search
+     */
+    public AlphaBetaSearch(Game game, TranspositionTable table, Evaluator evaluator, SearchOptions options) {
+        this.game = game;
+        this.table = table;
+        this.evaluator = evaluator;
+        this.options = options;
+        this.quiescence = new Quiescence(evaluator, MaterialEvaluator.PAWN_VALUE, Quiescence.MAX_DEPTH,
+                this::shouldStop);
+    }
+
+    /**
+     * Sets budget of the search
+     *
+     * @param millis maximal time of the search in milliseconds or {@link #UNLIMITED}
+     * @param nodes  maximal number of visited nodes or {@link #UNLIMITED}
+     */
+    public void setLimits(long millis, long nodes) {
+        timed = millis != UNLIMITED;
+        deadline = System.nanoTime() + millis * 1_000_000L;
+        nodeLimit = nodes == UNLIMITED ? Long.MAX_VALUE : nodes;
+        nextCheck = getNodes();
+    }
+
+    /**
+     * Stops the running search as soon as possible, result of the last completed iteration is kept
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Runs iterative deepening up to given depth or until the budget is exhausted
+     *
+     * @param maxDepth maximal depth of the search
+     * @return best move (see {@link PackedMove}) of the last completed iteration ({@link TranspositionTable#NO_MOVE}
+     * if there is no legal move)
+     */
+    public int iterate(int maxDepth) {
+        return iterate(1, maxDepth);
+    }
+
+    /**
+     * Runs iterative deepening from given depth up to given depth or until the budget is exhausted
+     *
+     * @param firstDepth depth of the first iteration
+     * @param maxDepth   maximal depth of the search
+     * @return best move (see {@link PackedMove}) of the last completed iteration ({@link TranspositionTable#NO_MOVE}
+     * if there is no legal move)
+     */
+    public int iterate(int firstDepth, int maxDepth) {
+        long start = System.nanoTime();
+        for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_PLY) && !stopped; depth++) {
+            searchRoot(depth);
+            if (Math.abs(bestScore) > MATE - MAX_PLY) {
+                break;
+            }
+        }
+        elapsedNanos += System.nanoTime() - start;
+        return bestMove;
+    }
+
+    /**
+     * Searches the root position to given depth. Best move and score are updated only
+     * if the iteration is completed, or if there is no result of previous iteration yet.
+     *
+     * @param depth depth of the search
+     */
+    private void searchRoot(int depth) {
+        int count = generateMoves(0);
+        if (count == 0) {
+            bestScore = evaluateTerminal(0);
+            completedDepth = depth;
+            return;
+        }
+        orderer.order(game.getBoard(), moves[0], bestMove, 0);
+        boolean inCheck = isInCheck();
+        int alpha = -INFINITY;
+        int best = moves[0].get(0);
+        for (int i = 0; i < count; i++) {
+            int score = i == 0 ? -searchChild(moves[0].get(i), depth - 1, -INFINITY, -alpha, 1)
+                    : searchLater(moves[0].get(i), i, depth, alpha, INFINITY, 0, inCheck);
+            if (stopped) {
+                break;
+            }
+            if (score > alpha) {
+                alpha = score;
+                best = moves[0].get(i);
+            }
+        }
+        keepResult(depth, best, alpha);
+    }
+
+    /**
+     * Keeps result of the root search, unless the search was stopped and there is a result of previous iteration
+     */
+    private void keepResult(int depth, int best, int score) {
+        if (!stopped || bestMove == TranspositionTable.NO_MOVE) {
+            bestMove = best;
+            bestScore = score;
+        }
+        if (!stopped) {
+            completedDepth = depth;
+            table.store(game.getPositionKey(), depth, score, TranspositionTable.EXACT, best);
+        }
+    }
+
+    private int search(int depth, int alpha, int beta, int ply) {
+        if (shouldStop()) {
+            return 0;
+        }
+        if (ply >= MAX_PLY) {
+            return evaluate();
+        }
+        if (depth <= 0) {
+            return quiescence.search(game, alpha, beta);
+        }
+        long key = game.getPositionKey();
+        long entry = probe(key);
+        int cutoff = probeCutoff(entry, depth, alpha, beta, ply);
+        if (cutoff != NO_SCORE) {
+            return cutoff;
+        }
+
+        int count = generateMoves(ply);
+        if (count == 0) {
+            return evaluateTerminal(ply);
+        }
+        boolean inCheck = isInCheck();
+        int nullScore = tryNullMove(depth, beta, ply, inCheck);
+        if (nullScore != NO_SCORE) {
+            return nullScore;
+        }
+        orderer.order(game.getBoard(), moves[ply], TranspositionTable.move(entry), ply);
+        return searchMoves(key, count, depth, alpha, beta, ply, inCheck);
+    }
+
+    /**
+     * Passes the turn and searches the position with reduced depth and zero window around beta.
+     * If even the opponent moving twice in a row cannot get below beta, the node fails high.
+     *
+     * @return score of the node or {@link #NO_SCORE} if the node has to be searched
+     */
+    private int tryNullMove(int depth, int beta, int ply, boolean inCheck) {
+        if (!options.nullMove() || inCheck || ply == 0 || nullMoves[ply - 1] || depth <= options.nullMoveReduction()
+                || Math.abs(beta) >= MATE - MAX_PLY || !hasPieces(game.getCurrentPlayer().color())) {
+            return NO_SCORE;
+        }
+        nullMoves[ply] = true;
+        game.makeNullMove();
+        nodes++;
+        int score = -search(depth - 1 - options.nullMoveReduction(), -beta, -beta + 1, ply + 1);
+        game.unmakeMove();
+        nullMoves[ply] = false;
+        if (stopped || score < beta) {
+            return NO_SCORE;
+        }
+        return score >= MATE - MAX_PLY ? beta : score;
+    }
+
+    /**
+     * Decides whether player of given color has a piece other than pawns and king,
+     * positions without them are likely zugzwang, where null move pruning fails
+     */
+    private boolean hasPieces(Color color) {
+        Board board = game.getBoard();
+        return (board.getBitboard(color, PieceType.QUEEN) | board.getBitboard(color, PieceType.ROOK)
+                | board.getBitboard(color, PieceType.BISHOP) | board.getBitboard(color, PieceType.KNIGHT)) != 0;
+    }
+
+    /**
+     * Searches generated moves of the node and stores the result to the transposition table
+     *
+     * @return score of the node or 0 if the search was stopped
+     */
+    private int searchMoves(long key, int count, int depth, int alpha, int beta, int ply, boolean inCheck) {
+        int best = -INFINITY;
+        int move = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < count && best < beta; i++) {
+            int score = i == 0 ? -searchChild(moves[ply].get(i), depth - 1, -beta, -alpha, ply + 1)
+                    : searchLater(moves[ply].get(i), i, depth, Math.max(alpha, best), beta, ply, inCheck);
+            if (stopped) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                move = moves[ply].get(i);
+            }
+        }
+        if (best >= beta) {
+            orderer.recordCutoff(move, depth, ply);
+            cutoffs++;
+            firstMoveCutoffs += move == moves[ply].get(0) ? 1 : 0;
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                : best > alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, depth, toTable(best, ply), bound, move);
+        return best;
+    }
+
+    /**
+     * Searches move which is not the first one of its node. The move is searched with reduced depth
+     * (late move reduction) and zero window (principal variation search) first, if enabled,
+     * and re-searched with full depth and window only if it turns out better than alpha.
+     *
+     * @return score of the move from the view of player on the move in the node
+     */
+    private int searchLater(int move, int index, int depth, int alpha, int beta, int ply, boolean inCheck) {
+        int reduction = reduction(move, index, depth, inCheck);
+        if (reduction > 0) {
+            int score = -searchChild(move, depth - 1 - reduction, -alpha - 1, -alpha, ply + 1);
+            if (score <= alpha || stopped) {
+                return score;
+            }
+        }
+        if (options.principalVariation()) {
+            int score = -searchChild(move, depth - 1, -alpha - 1, -alpha, ply + 1);
+            if (score <= alpha || score >= beta || stopped) {
+                return score;
+            }
+        }
+        return -searchChild(move, depth - 1, -beta, -alpha, ply + 1);
+    }
+
+    private int reduction(int move, int index, int depth, boolean inCheck) {
+        if (options.lateMoveReduction() == 0 || inCheck || depth < options.lateMoveMinDepth()
+                || index < Math.max(1, options.lateMoveMinIndex())
+                || PackedMove.isCapture(move) || PackedMove.isPromotion(move)) {
+            return 0;
+        }
+        return Math.min(options.lateMoveReduction(), depth - 1);
+    }
+
+    private boolean isInCheck() {
+        boolean needed = options.nullMove() || options.lateMoveReduction() > 0;
+        return needed && game.isCheckOf(game.getCurrentPlayer());
+    }
+
+    private int searchChild(int move, int depth, int alpha, int beta, int ply) {
+        game.makeMove(move);
+        nodes++;
+        int score = search(depth, alpha, beta, ply);
+        game.unmakeMove();
+        return score;
+    }
+
+    private long probe(long key) {
+        long entry = table.probe(key);
+        tableProbes++;
+        tableHits += entry == TranspositionTable.MISS ? 0 : 1;
+        return entry;
+    }
+
+    /**
+     * Decides whether the stored entry is deep enough and its bound allows to end the search of node
+     *
+     * @return score of the node or {@link #NO_SCORE} if the node has to be searched
+     */
+    private static int probeCutoff(long entry, int depth, int alpha, int beta, int ply) {
+        if (entry == TranspositionTable.MISS || TranspositionTable.depth(entry) < depth) {
+            return NO_SCORE;
+        }
+        int score = fromTable(TranspositionTable.score(entry), ply);
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT
+                || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+            return score;
+        }
+        return NO_SCORE;
+    }
+
+    /**
+     * Mate scores are stored relative to the stored node, so they stay valid at any ply
+     */
+    private static int toTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score + ply;
+        }
+        return score < -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score - ply;
+        }
+        return score < -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    /**
+     * Checks the budget at every node, the clock is read once per {@link #CHECK_INTERVAL} visited nodes
+     * (including leaves and nodes of quiescence search)
+     */
+    private boolean shouldStop() {
+        long visited = getNodes();
+        if (visited >= nodeLimit) {
+            stopped = true;
+        } else if (timed && visited >= nextCheck) {
+            nextCheck = visited + CHECK_INTERVAL;
+            if (System.nanoTime() - deadline > 0) {
+                stopped = true;
+            }
+        }
+        return stopped;
+    }
+
+    private int evaluate() {
+        return evaluator.evaluate(game, game.getCurrentPlayer().color());
+    }
+
+    private int evaluateTerminal(int ply) {
+        return game.isCheckOf(game.getCurrentPlayer()) ? -MATE + ply : 0;
+    }
+
+    /**
+     * Fills buffer of given ply with legal moves of player on the move
+     *
+     * @param ply distance from the root
+     * @return number of generated moves
+     */
+    private int generateMoves(int ply) {
+        game.generateMoves(moves[ply]);
+        return moves[ply].size();
+    }
+
+    /**
+     * Returns number of visited nodes including nodes of quiescence search
+     *
+     * @return number of nodes
+     */
+    public long getNodes() {
+        return nodes + quiescence.getNodes();
+    }
+
+    /**
+     * Returns statistics of the search so far
+     *
+     * @return statistics of the search
+     */
+    public SearchStatistics getStatistics() {
+        return new SearchStatistics(getNodes(), completedDepth, elapsedNanos, cutoffs, firstMoveCutoffs,
+                tableProbes, tableHits);
+    }
+
+    public int getBestScore() {
+        return bestScore;
+    }
+
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+}
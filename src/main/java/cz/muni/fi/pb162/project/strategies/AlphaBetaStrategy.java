@@ -0,0 +1,152 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Coordinates;
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.moves.PackedMove;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents strategy which searches the position by alpha-beta pruning with iterative deepening
+ * (see {@link AlphaBetaSearch}). Every move is searched within fixed time or node budget,
+ * so the strategy answers with fixed latency instead of fixed depth.
+ *
+ * @author Adam Dzadon
+ */
+public class AlphaBetaStrategy implements InstrumentedStrategy {
+
+    private final long millisPerMove;
+    private final long nodesPerMove;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final SearchOptions options;
+    private final SearchListeners listeners = new SearchListeners();
+    private volatile SearchStatistics lastStatistics = SearchStatistics.EMPTY;
+
+    /**
+     * Creates strategy with given time budget per move
+     *
+     * @param millisPerMove time budget of one move in milliseconds
+     */
+    public AlphaBetaStrategy(long millisPerMove) {
+        this(millisPerMove, AlphaBetaSearch.UNLIMITED);
+    }
+
+    /**
+     * Creates strategy with given budget per move and transposition table of default size
+     *
+     * @param millisPerMove time budget of one move in milliseconds or {@link AlphaBetaSearch#UNLIMITED}
+     * @param nodesPerMove  node budget of one move or {@link AlphaBetaSearch#UNLIMITED}
+     */
+    public AlphaBetaStrategy(long millisPerMove, long nodesPerMove) {
+        this(millisPerMove, nodesPerMove, DFStrategy.DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * Creates strategy with given budget per move and transposition table of given size
+     *
+     * @param millisPerMove  time budget of one move in milliseconds or {@link AlphaBetaSearch#UNLIMITED}
+     * @param nodesPerMove   node budget of one move or {@link AlphaBetaSearch#UNLIMITED}
+     * @param tableMegabytes memory budget of transposition table in megabytes
+     */
+    public AlphaBetaStrategy(long millisPerMove, long nodesPerMove, int tableMegabytes) {
+        this(millisPerMove, nodesPerMove, tableMegabytes, new MaterialEvaluator());
+    }
+
+    /**
+     * Creates strategy with given budget per move, transposition table of given size and given evaluation
+     *
+     * @param millisPerMove  time budget of one move in milliseconds or {@link AlphaBetaSearch#UNLIMITED}
+     * @param nodesPerMove   node budget of one move or {@link AlphaBetaSearch#UNLIMITED}
+     * @param tableMegabytes memory budget of transposition table in megabytes
+     * @param evaluator      evaluation of leaf positions
+     */
+    public AlphaBetaStrategy(long millisPerMove, long nodesPerMove, int tableMegabytes, Evaluator evaluator) {
+        this(millisPerMove, nodesPerMove, tableMegabytes, evaluator, SearchOptions.ALPHA_BETA);
+    }
+
+    /**
+     * Creates strategy with given budget per move, transposition table of given size, evaluation and pruning
+     *
+     * @param millisPerMove  time budget of one move in milliseconds or {@link AlphaBetaSearch#UNLIMITED}
+     * @param nodesPerMove   node budget of one move or {@link AlphaBetaSearch#UNLIMITED}
+     * @param tableMegabytes memory budget of transposition table in megabytes
+     * @param evaluator      evaluation of leaf positions
+     * @param options        pruning and reductions of the search (e.g. {@link SearchOptions#PVS})
+     */
+    public AlphaBetaStrategy(long millisPerMove, long nodesPerMove, int tableMegabytes, Evaluator evaluator,
+                             SearchOptions options) {
+        if (millisPerMove == AlphaBetaSearch.UNLIMITED && nodesPerMove == AlphaBetaSearch.UNLIMITED) {
+            throw new IllegalArgumentException("Either time or node budget has to be limited");
+        }
+        this.millisPerMove = millisPerMove;
+        this.nodesPerMove = nodesPerMove;
+        this.table = new TranspositionTable(tableMegabytes);
+        this.evaluator = evaluator;
+        this.options = options;
+    }
+
+    @Override
+    public Pair<Coordinates, Coordinates> makeMove(Game game) {
+        return run(createSearch(game));
+    }
+
+    /**
+     * Starts the search on a copy of the game, cancelling the returned future stops the search
+     */
+    @Override
+    public CompletableFuture<Pair<Coordinates, Coordinates>> makeMoveAsync(Game game, Executor executor) {
+        AlphaBetaSearch search = createSearch(game.makeClone());
+        return AsyncSearches.start(() -> run(search), search::stop, executor);
+    }
+
+    private AlphaBetaSearch createSearch(Game game) {
+        return new AlphaBetaSearch(game, table, evaluator, options);
+    }
+
+    /**
+     * Runs the search, its budget starts now (not when the search was created and queued)
+     */
+    private Pair<Coordinates, Coordinates> run(AlphaBetaSearch search) {
+        search.setLimits(millisPerMove, nodesPerMove);
+        int move = search.iterate(AlphaBetaSearch.MAX_PLY);
+        lastStatistics = search.getStatistics();
+        listeners.searchFinished(lastStatistics);
+        return PackedMove.toPair(move);
+    }
+
+    @Override
+    public void addListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(SearchListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public SearchStatistics getLastStatistics() {
+        return lastStatistics;
+    }
+
+    /**
+     * Returns number of nodes visited during the last move
+     *
+     * @return number of nodes
+     */
+    public long getLastNodes() {
+        return lastStatistics.nodes();
+    }
+
+    /**
+     * Returns depth of the last completed iteration of the last move
+     *
+     * @return depth of the search
+     */
+    public int getLastDepth() {
+        return lastStatistics.depth();
+    }
+}
@@ -0,0 +1,44 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Helper for strategies which can stop their search, used to implement
+ * {@link MoveStrategy#makeMoveAsync(cz.muni.fi.pb162.project.Game, Executor)}
+ *
+ * @author Adam Dzadon
+ */
+final class AsyncSearches {
+
+    private AsyncSearches() {
+    }
+
+    /**
+     * Runs search on given executor. The search is stopped when the returned future is completed
+     * by anyone else (cancelled, timed out), so the thread of executor is released soon.
+     * Search whose future is completed while it waits in the queue of executor is not run at all.
+     *
+     * @param search   search to run
+     * @param stop     action stopping the search
+     * @param executor executor running the search
+     * @param <T>      type of result of the search
+     * @return future completed by result of the search
+     */
+    static <T> CompletableFuture<T> start(Supplier<T> search, Runnable stop, Executor executor) {
+        CompletableFuture<T> res = new CompletableFuture<>();
+        res.whenComplete((result, failure) -> stop.run());
+        executor.execute(() -> {
+            if (res.isDone()) {
+                return;
+            }
+            try {
+                res.complete(search.get());
+            } catch (RuntimeException e) {
+                res.completeExceptionally(e);
+            }
+        });
+        return res;
+    }
+}
@@ -4,61 +4,239 @@ import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
 import cz.muni.fi.pb162.project.Piece;
 import cz.muni.fi.pb162.project.Player;
+import cz.muni.fi.pb162.project.moves.PackedMove;
+import cz.muni.fi.pb162.project.utils.Bitboards;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
- * Represents DFS move strategy, which picks the best move in certain depth with certain cost function
+ * Represents DFS move strategy, which picks the best move in certain depth with certain cost function.
+ * Results of already searched positions are kept in {@link TranspositionTable}, so positions reached
+ * by different orders of moves are searched only once. Leaves are extended by a few captures
+ * (see {@link Quiescence}), so captures on the last ply are not mistaken for free gains.
  *
  * @author Adam Dzadon
  */
-public class DFStrategy implements MoveStrategy {
+public class DFStrategy implements InstrumentedStrategy {
 
     public static final int DEPTH = 2;
     public static final int MIN = 0;
     public static final int MAX = 1;
+    public static final int DEFAULT_TABLE_SIZE = 16;
 
-    private Pair<Pair<Coordinates, Coordinates>, Integer> performDFS(Player me,
-                                                                     int state,
-                                                                     Game game,
-                                                                     Pair<Coordinates, Coordinates> move,
-                                                                     int depth) {
+    /**
+     * Sign converting scores of leaves (from the view of player on the move in the leaf) to the view of the root
+     */
+    private static final int LEAF_SIGN = DEPTH % 2 == 0 ? 1 : -1;
+
+    /**
+     * Maximal number of captures resolved in a leaf, enough for common exchanges while keeping the latency low
+     */
+    private static final int QUIESCENCE_DEPTH = 4;
+
+    private static final Evaluator MATERIAL =
+            (game, color) -> game.getTotalValueOf(color) - game.getTotalValueOf(color.getOppositeColor());
+
+    private final TranspositionTable table;
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    private final SearchListeners listeners = new SearchListeners();
+    private volatile SearchStatistics lastStatistics = SearchStatistics.EMPTY;
+    private final ThreadLocal<Quiescence> quiescence =
+            ThreadLocal.withInitial(() -> new Quiescence(MATERIAL, 1, QUIESCENCE_DEPTH, () -> false));
+
+    /**
+     * Creates strategy with transposition table of default size
+     */
+    public DFStrategy() {
+        this(DEFAULT_TABLE_SIZE);
+    }
+
+    /**
+     * Creates strategy with transposition table of given size
+     *
+     * @param tableMegabytes memory budget of transposition table in megabytes
+     */
+    public DFStrategy(int tableMegabytes) {
+        table = new TranspositionTable(tableMegabytes);
+    }
+
+    Pair<Pair<Coordinates, Coordinates>, Integer> performDFS(Player me,
+                                                             int state,
+                                                             Game game,
+                                                             Pair<Coordinates, Coordinates> move,
+                                                             int depth) {
 
         if (depth == 0) {
-            int coef = DEPTH % 2 == 0 ? -1 : 1;
-            int score = coef * (game.getTotalValueOf(game.getOtherPlayer(me).color()) - game.getTotalValueOf(me.color()));
-            return Pair.of(move, score);
+            return Pair.of(move, LEAF_SIGN * searchCaptures(game, -AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY));
+        }
+
+        long key = game.getPositionKey();
+        long entry = depth < DEPTH ? probe(key) : TranspositionTable.MISS;
+        if (entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+            return Pair.of(move, fromSideToMove(state, TranspositionTable.score(entry)));
         }
 
         int bestScore = state == MAX ? -10000000 : 100000000;
         Pair<Coordinates, Coordinates> bestMove = null;
 
-        Piece[] myPieces = game.getBoard().getAllByColor(me.color());
-        for (Piece piece : myPieces) {
+        for (Piece piece : game.getBoard().getAllByColor(me.color())) {
             Coordinates pieceCoordinates = game.getBoard().findCoordinatesOfPieceById(piece.getId());
             Set<Coordinates> to = game.getMovesByPiece(piece);
             for (Coordinates coordinates : to) {
-                Piece previous = game.getBoard().getPiece(coordinates);
-                game.move(pieceCoordinates, coordinates);
+                game.makeMove(pieceCoordinates, coordinates);
+                nodes.increment();
 
                 Pair<Coordinates, Coordinates> moveDone = Pair.of(pieceCoordinates, coordinates);
-                int newState = state == MAX ? MIN : MAX;
-                Pair<Pair<Coordinates, Coordinates>, Integer> res = performDFS(game.getOtherPlayer(me), newState, game, moveDone, depth - 1);
-
-                if ((state == MAX && res.getRight() > bestScore) || (state == MIN && res.getRight() < bestScore)) {
-                    bestScore = res.getRight();
+                int score = searchChild(me, state, game, moveDone, depth, bestScore);
+                if ((state == MAX && score > bestScore) || (state == MIN && score < bestScore)) {
+                    bestScore = score;
                     bestMove = moveDone;
                 }
 
-                game.putPieceOnBoard(pieceCoordinates.letterNumber(), pieceCoordinates.number(), piece);
-                game.putPieceOnBoard(coordinates.letterNumber(), coordinates.number(), previous);
+                game.unmakeMove();
             }
 
         }
+        table.store(key, depth, fromSideToMove(state, bestScore), TranspositionTable.EXACT, pack(game, bestMove));
         return Pair.of(bestMove, bestScore);
     }
 
+    /**
+     * Searches child reached by given move of the node, leaves are evaluated directly
+     * with the window given by the best score of the node
+     *
+     * @return score of the child from the view of the root
+     */
+    private int searchChild(Player me, int state, Game game, Pair<Coordinates, Coordinates> move, int depth,
+                            int bestScore) {
+        if (depth == 1) {
+            return evaluate(game, state, bestScore);
+        }
+        int newState = state == MAX ? MIN : MAX;
+        return performDFS(game.getOtherPlayer(me), newState, game, move, depth - 1).getRight();
+    }
+
+    /**
+     * Evaluates leaf by material after all captures are resolved by {@link Quiescence}.
+     * The parent only needs to know whether the leaf is better than its best score so far, so captures
+     * are searched with a window bounded by that score. Scores outside the window are bounds,
+     * which never replace the best score of the parent, so the result of the node is the same
+     * as with full window.
+     *
+     * @param game        game in the leaf position
+     * @param parentState MIN or MAX of the parent
+     * @param parentBest  best score of the parent so far
+     * @return score from the view of the root
+     */
+    private int evaluate(Game game, int parentState, int parentBest) {
+        int bound = LEAF_SIGN * Math.max(-AlphaBetaSearch.INFINITY, Math.min(AlphaBetaSearch.INFINITY, parentBest));
+        boolean lower = (parentState == MAX) == (LEAF_SIGN == 1);
+        return LEAF_SIGN * searchCaptures(game, lower ? bound : -AlphaBetaSearch.INFINITY,
+                lower ? AlphaBetaSearch.INFINITY : bound);
+    }
+
+    /**
+     * Runs quiescence search of this thread and counts its nodes
+     *
+     * @return score from the view of player on the move in the leaf
+     */
+    private int searchCaptures(Game game, int alpha, int beta) {
+        Quiescence leafSearch = quiescence.get();
+        long before = leafSearch.getNodes();
+        int score = leafSearch.search(game, alpha, beta);
+        nodes.add(leafSearch.getNodes() - before);
+        return score;
+    }
+
+    /**
+     * Counts a node visited outside of {@link #performDFS}
+     */
+    void countNode() {
+        nodes.increment();
+    }
+
+    private long probe(long key) {
+        long entry = table.probe(key);
+        tableProbes.increment();
+        if (entry != TranspositionTable.MISS) {
+            tableHits.increment();
+        }
+        return entry;
+    }
+
+    /**
+     * Starts counting statistics of a new move
+     */
+    void resetStatistics() {
+        nodes.reset();
+        tableProbes.reset();
+        tableHits.reset();
+    }
+
+    /**
+     * Finishes statistics of the move and notifies listeners
+     *
+     * @param startNanos time when the search of the move started
+     */
+    void publishStatistics(long startNanos) {
+        lastStatistics = new SearchStatistics(nodes.sum(), DEPTH, System.nanoTime() - startNanos, 0, 0,
+                tableProbes.sum(), tableHits.sum());
+        listeners.searchFinished(lastStatistics);
+    }
+
+    /**
+     * Returns number of nodes visited during the last move (including nodes of quiescence search)
+     *
+     * @return number of nodes
+     */
+    public long getLastNodes() {
+        return lastStatistics.nodes();
+    }
+
+    @Override
+    public void addListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(SearchListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public SearchStatistics getLastStatistics() {
+        return lastStatistics;
+    }
+
+    /**
+     * Converts score between the view of player searching the tree and the view of player on the move.
+     * Table keeps scores from the view of player on the move, so they are valid for both players.
+     *
+     * @param state MIN or MAX
+     * @param score score to convert
+     * @return converted score
+     */
+    private static int fromSideToMove(int state, int score) {
+        return state == MAX ? score : -score;
+    }
+
+    /**
+     * Packs move of the node, board of given game must be in the position of the node
+     */
+    private static int pack(Game game, Pair<Coordinates, Coordinates> move) {
+        if (move == null) {
+            return TranspositionTable.NO_MOVE;
+        }
+        Coordinates from = move.getLeft();
+        Coordinates to = move.getRight();
+        return PackedMove.classify(game.getBoard(), Bitboards.square(from.letterNumber(), from.number()),
+                Bitboards.square(to.letterNumber(), to.number()));
+    }
+
     private Pair<Coordinates, Coordinates> getBestInDepth(Game game) {
         Pair<Pair<Coordinates, Coordinates>, Integer> res = performDFS(game.getCurrentPlayer(), MAX, game, null, DEPTH);
         return res.getLeft();
@@ -66,7 +244,11 @@ public class DFStrategy implements MoveStrategy {
 
     @Override
     public Pair<Coordinates, Coordinates> makeMove(Game game) {
-        return getBestInDepth(game);
+        long start = System.nanoTime();
+        resetStatistics();
+        Pair<Coordinates, Coordinates> res = getBestInDepth(game);
+        publishStatistics(start);
+        return res;
     }
 
 }
@@ -0,0 +1,21 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.Game;
+
+/**
+ * Represents static evaluation of a position used by searching strategies
+ *
+ * @author Adam Dzadon
+ */
+public interface Evaluator {
+
+    /**
+     * Evaluates current position of given game
+     *
+     * @param game  game to evaluate
+     * @param color color from whose view the position is evaluated
+     * @return score of the position, positive if it is good for given color
+     */
+    int evaluate(Game game, Color color);
+}
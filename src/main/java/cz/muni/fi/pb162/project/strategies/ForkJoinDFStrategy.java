@@ -0,0 +1,115 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Coordinates;
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.Player;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Represents DFS move strategy (see {@link DFStrategy}) which searches subtrees of root moves in parallel.
+ * Every root move is searched as a {@link RecursiveTask} on its own copy of the game,
+ * the best score is picked once all tasks are finished. Picked move is the same as the one of {@link DFStrategy}.
+ *
+ * @author Adam Dzadon
+ */
+public class ForkJoinDFStrategy extends DFStrategy {
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates strategy running in the common fork/join pool
+     */
+    public ForkJoinDFStrategy() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates strategy running in given fork/join pool
+     *
+     * @param pool pool which runs the tasks
+     */
+    public ForkJoinDFStrategy(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public Pair<Coordinates, Coordinates> makeMove(Game game) {
+        long start = System.nanoTime();
+        resetStatistics();
+        Pair<Coordinates, Coordinates> res = pool.invoke(new RootTask(game));
+        publishStatistics(start);
+        return res;
+    }
+
+    /**
+     * Nested task which splits the root into tasks of single moves and picks the best of them
+     *
+     * @author Adam Dzadon
+     */
+    private final class RootTask extends RecursiveTask<Pair<Coordinates, Coordinates>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Game game;
+
+        private RootTask(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        protected Pair<Coordinates, Coordinates> compute() {
+            Player me = game.getCurrentPlayer();
+            List<MoveTask> tasks = new ArrayList<>();
+            for (Piece piece : game.getBoard().getAllByColor(me.color())) {
+                Coordinates from = game.getBoard().findCoordinatesOfPieceById(piece.getId());
+                for (Coordinates to : game.getMovesByPiece(piece)) {
+                    tasks.add(new MoveTask(game.makeClone(), Pair.of(from, to), game.getOtherPlayer(me)));
+                }
+            }
+            invokeAll(tasks);
+
+            int bestScore = -10000000;
+            Pair<Coordinates, Coordinates> bestMove = null;
+            for (MoveTask task : tasks) {
+                if (task.join() > bestScore) {
+                    bestScore = task.join();
+                    bestMove = task.move;
+                }
+            }
+            return bestMove;
+        }
+    }
+
+    /**
+     * Nested task which plays one root move on its own copy of the game and searches the rest of the tree
+     *
+     * @author Adam Dzadon
+     */
+    private final class MoveTask extends RecursiveTask<Integer> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Game copy;
+        private final Pair<Coordinates, Coordinates> move;
+        private final Player opponent;
+
+        private MoveTask(Game copy, Pair<Coordinates, Coordinates> move, Player opponent) {
+            this.copy = copy;
+            this.move = move;
+            this.opponent = opponent;
+        }
+
+        @Override
+        protected Integer compute() {
+            copy.makeMove(move.getLeft(), move.getRight());
+            countNode();
+            return performDFS(opponent, MIN, copy, move, DEPTH - 1).getRight();
+        }
+    }
+}
@@ -5,6 +5,9 @@ import cz.muni.fi.pb162.project.Game;
 import cz.muni.fi.pb162.project.gui.GameDisplay;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * GUI human-based move strategy
  *
@@ -20,15 +23,14 @@ public class GUIPlayer implements MoveStrategy {
 
     @Override
     public Pair<Coordinates, Coordinates> makeMove(Game game) {
-        while (display.getTo() == null || display.getFrom() == null) {
-            try{
-                Thread.sleep(200);
-            } catch (InterruptedException e) {
-            }
-        }
+        return display.awaitMove().join();
+    }
 
-        Pair<Coordinates, Coordinates> res = Pair.of(display.getFrom(), display.getTo());
-        display.eraseSelected();
-        return res;
+    /**
+     * Waits for the user without occupying any thread, the future is completed by the click on the board
+     */
+    @Override
+    public CompletableFuture<Pair<Coordinates, Coordinates>> makeMoveAsync(Game game, Executor executor) {
+        return display.awaitMove();
     }
 }
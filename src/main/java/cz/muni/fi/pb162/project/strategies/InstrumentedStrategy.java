@@ -0,0 +1,30 @@
+package cz.muni.fi.pb162.project.strategies;
+
+/**
+ * Represents moving strategy which reports statistics of its searches
+ *
+ * @author Adam Dzadon
+ */
+public interface InstrumentedStrategy extends MoveStrategy {
+
+    /**
+     * Registers listener notified after every move
+     *
+     * @param listener listener to add
+     */
+    void addListener(SearchListener listener);
+
+    /**
+     * Unregisters listener
+     *
+     * @param listener listener to remove
+     */
+    void removeListener(SearchListener listener);
+
+    /**
+     * Returns statistics of the last move
+     *
+     * @return statistics or {@link SearchStatistics#EMPTY} if no move was made yet
+     */
+    SearchStatistics getLastStatistics();
+}
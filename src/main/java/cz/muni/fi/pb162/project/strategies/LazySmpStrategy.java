@@ -0,0 +1,197 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Coordinates;
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.moves.PackedMove;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Represents strategy which searches the position by several threads at once (Lazy SMP).
+ * <p>
+ * Every worker runs its own {@link AlphaBetaSearch} on its own copy of the game, workers share only
+ * the lock-free {@link TranspositionTable}. Helper workers start iterative deepening at different depths,
+ * so they fill the table with results the main worker (running on the calling thread) can use.
+ * When the main worker runs out of its budget, helpers are stopped and the move of the main worker is played.
+ * <p>
+ * Helper workers run on threads owned by the strategy, which are released by {@link #close()}.
+ *
+ * @author Adam Dzadon
+ */
+public class LazySmpStrategy implements InstrumentedStrategy, AutoCloseable {
+
+    private final int threads;
+    private final long millisPerMove;
+    private final long nodesPerMove;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    private final SearchOptions options;
+    private final ExecutorService helpers;
+    private final SearchListeners listeners = new SearchListeners();
+    private volatile SearchStatistics lastStatistics = SearchStatistics.EMPTY;
+
+    /**
+     * Creates strategy using all available processors with given time budget per move
+     *
+     * @param millisPerMove time budget of one move in milliseconds
+     */
+    public LazySmpStrategy(long millisPerMove) {
+        this(Runtime.getRuntime().availableProcessors(), millisPerMove, AlphaBetaSearch.UNLIMITED);
+    }
+
+    /**
+     * Creates strategy with given number of threads and budget per move
+     *
+     * @param threads       number of searching threads (including the calling one)
+     * @param millisPerMove time budget of one move in milliseconds or {@link AlphaBetaSearch#UNLIMITED}
+     * @param nodesPerMove  node budget of one move of every thread or {@link AlphaBetaSearch#UNLIMITED}
+     */
+    public LazySmpStrategy(int threads, long millisPerMove, long nodesPerMove) {
+        this(threads, millisPerMove, nodesPerMove, new MaterialEvaluator(), SearchOptions.ALPHA_BETA);
+    }
+
+    /**
+     * Creates strategy with given number of threads, budget per move, evaluation and pruning
+     *
+     * @param threads       number of searching threads (including the calling one)
+     * @param millisPerMove time budget of one move in milliseconds or {@link AlphaBetaSearch#UNLIMITED}
+     * @param nodesPerMove  node budget of one move of every thread or {@link AlphaBetaSearch#UNLIMITED}
+     * @param evaluator     evaluation of leaf positions, shared by all threads
+     * @param options       pruning and reductions of the search (e.g. {@link SearchOptions#PVS})
+     */
+    public LazySmpStrategy(int threads, long millisPerMove, long nodesPerMove, Evaluator evaluator,
+                           SearchOptions options) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is needed");
+        }
+        if (millisPerMove == AlphaBetaSearch.UNLIMITED && nodesPerMove == AlphaBetaSearch.UNLIMITED) {
+            throw new IllegalArgumentException("Either time or node budget has to be limited");
+        }
+        this.threads = threads;
+        this.millisPerMove = millisPerMove;
+        this.nodesPerMove = nodesPerMove;
+        this.table = new TranspositionTable(DFStrategy.DEFAULT_TABLE_SIZE * threads);
+        this.evaluator = evaluator;
+        this.options = options;
+        this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "lazy-smp-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Pair<Coordinates, Coordinates> makeMove(Game game) {
+        return run(createSearches(game));
+    }
+
+    /**
+     * Starts the search of all threads, cancelling the returned future stops all of them
+     */
+    @Override
+    public CompletableFuture<Pair<Coordinates, Coordinates>> makeMoveAsync(Game game, Executor executor) {
+        AlphaBetaSearch[] searches = createSearches(game);
+        return AsyncSearches.start(() -> run(searches), () -> stopAll(searches), executor);
+    }
+
+    private AlphaBetaSearch[] createSearches(Game game) {
+        AlphaBetaSearch[] searches = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new AlphaBetaSearch(game.makeClone(), table, evaluator, options);
+        }
+        return searches;
+    }
+
+    private static void stopAll(AlphaBetaSearch[] searches) {
+        for (AlphaBetaSearch search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Runs the searches, their budget starts now (not when the searches were created and queued)
+     */
+    private Pair<Coordinates, Coordinates> run(AlphaBetaSearch[] searches) {
+        for (AlphaBetaSearch search : searches) {
+            search.setLimits(millisPerMove, nodesPerMove);
+        }
+        List<Future<Integer>> running = new ArrayList<>();
+        for (int i = 1; i < threads; i++) {
+            AlphaBetaSearch helper = searches[i];
+            int firstDepth = 1 + i % 2;
+            running.add(helpers.submit(() -> helper.iterate(firstDepth, AlphaBetaSearch.MAX_PLY)));
+        }
+
+        int move = searches[0].iterate(AlphaBetaSearch.MAX_PLY);
+        stopAll(searches);
+        awaitAll(running);
+
+        SearchStatistics statistics = searches[0].getStatistics();
+        for (int i = 1; i < threads; i++) {
+            statistics = statistics.merge(searches[i].getStatistics());
+        }
+        lastStatistics = statistics;
+        listeners.searchFinished(statistics);
+        return PackedMove.toPair(move);
+    }
+
+    /**
+     * Stops threads of helper workers, the strategy must not be used afterwards
+     */
+    @Override
+    public void close() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    @Override
+    public void addListener(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(SearchListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public SearchStatistics getLastStatistics() {
+        return lastStatistics;
+    }
+
+    /**
+     * Waits until all helper workers finish their (already stopped) searches
+     *
+     * @param running results of helper workers
+     */
+    private static void awaitAll(List<Future<Integer>> running) {
+        for (Future<Integer> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Helper search failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Returns number of nodes visited by all threads during the last move
+     *
+     * @return number of nodes
+     */
+    public long getLastNodes() {
+        return lastStatistics.nodes();
+    }
+}
@@ -0,0 +1,26 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.Game;
+
+/**
+ * Evaluates position by material and squares of pieces (see {@link cz.muni.fi.pb162.project.utils.PieceSquareTables}).
+ * Both terms are kept up to date by the board on every move, so evaluation takes constant time.
+ * Score is in centipawns.
+ *
+ * @author Adam Dzadon
+ */
+public class MaterialEvaluator implements Evaluator {
+
+    public static final int PAWN_VALUE = 100;
+
+    @Override
+    public int evaluate(Game game, Color color) {
+        return score(game.getBoard(), color) - score(game.getBoard(), color.getOppositeColor());
+    }
+
+    private static int score(Board board, Color color) {
+        return board.getMaterial(color) * PAWN_VALUE + board.getPositionalScore(color);
+    }
+}
@@ -0,0 +1,144 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.PieceType;
+import cz.muni.fi.pb162.project.moves.MoveList;
+import cz.muni.fi.pb162.project.moves.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Orders generated moves of a search, so moves most likely to cause a cutoff are searched first.
+ * <p>
+ * Order is: move from transposition table, promotions and captures (most valuable victim first,
+ * then least valuable attacker first, see {@link PieceType#getValue()}), killer moves of the ply
+ * and the remaining quiet moves by butterfly history (how often the move from one square to another
+ * caused a cutoff, weighted by depth).
+ * <p>
+ * Orderer keeps state of one search and is not thread safe, every searching thread needs its own.
+ *
+ * @author Adam Dzadon
+ */
+public final class MoveOrderer {
+
+    public static final int KILLERS_PER_PLY = 2;
+
+    private static final int HASH_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 26;
+    private static final int HISTORY_LIMIT = 1 << 24;
+    private static final int VICTIM_SCALE = 16;
+    private static final int SQUARES = Board.SIZE * Board.SIZE;
+
+    private final int[][] killers;
+    private final int[] history = new int[SQUARES * SQUARES];
+    private final int[] scores = new int[MoveList.CAPACITY];
+
+    /**
+     * Creates orderer for searches up to given ply
+     *
+     * @param maxPly maximal distance from the root
+     */
+    public MoveOrderer(int maxPly) {
+        this.killers = new int[maxPly + 1][KILLERS_PER_PLY];
+    }
+
+    /**
+     * Forgets all killer moves and history
+     */
+    public void clear() {
+        for (int[] byPly : killers) {
+            Arrays.fill(byPly, PackedMove.NONE);
+        }
+        Arrays.fill(history, 0);
+    }
+
+    /**
+     * Sorts moves of given list from the most promising one
+     *
+     * @param board    board with the position the moves were generated in
+     * @param moves    moves to sort
+     * @param hashMove best move stored in transposition table or {@link PackedMove#NONE}
+     * @param ply      distance from the root
+     */
+    public void order(Board board, MoveList moves, int hashMove, int ply) {
+        for (int i = 0; i < moves.size(); i++) {
+            scores[i] = score(board, moves.get(i), hashMove, ply);
+        }
+        for (int i = 1; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score = scores[i];
+            int j = i;
+            for (; j > 0 && scores[j - 1] < score; j--) {
+                scores[j] = scores[j - 1];
+                moves.set(j, moves.get(j - 1));
+            }
+            scores[j] = score;
+            moves.set(j, move);
+        }
+    }
+
+    /**
+     * Remembers move which caused a cutoff, quiet moves become killers of the ply and gain history
+     *
+     * @param move  move which caused the cutoff
+     * @param depth remaining depth of the node
+     * @param ply   distance from the root
+     */
+    public void recordCutoff(int move, int depth, int ply) {
+        if (!isQuiet(move)) {
+            return;
+        }
+        int[] byPly = killers[ply];
+        if (byPly[0] != move) {
+            System.arraycopy(byPly, 0, byPly, 1, KILLERS_PER_PLY - 1);
+            byPly[0] = move;
+        }
+        int index = historyIndex(move);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] /= 2;
+            }
+        }
+    }
+
+    private int score(Board board, int move, int hashMove, int ply) {
+        if (move == hashMove) {
+            return HASH_SCORE;
+        }
+        if (!isQuiet(move)) {
+            return CAPTURE_SCORE + captureScore(board, move);
+        }
+        for (int i = 0; i < KILLERS_PER_PLY; i++) {
+            if (killers[ply][i] == move) {
+                return KILLER_SCORE - i;
+            }
+        }
+        return history[historyIndex(move)];
+    }
+
+    /**
+     * MVV-LVA score of capture or promotion
+     */
+    private static int captureScore(Board board, int move) {
+        Piece victim = board.getPiece(PackedMove.to(move));
+        Piece attacker = board.getPiece(PackedMove.from(move));
+        int victimValue = PackedMove.isEnPassant(move) ? PieceType.PAWN.getValue()
+                : victim == null ? 0 : victim.getPieceType().getValue();
+        PieceType promotion = PackedMove.promotionType(move);
+        if (promotion != null) {
+            victimValue += promotion.getValue();
+        }
+        return victimValue * VICTIM_SCALE - (attacker == null ? 0 : attacker.getPieceType().getValue());
+    }
+
+    private static boolean isQuiet(int move) {
+        return !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+    }
+
+    private static int historyIndex(int move) {
+        return PackedMove.from(move) * SQUARES + PackedMove.to(move);
+    }
+}
@@ -4,6 +4,11 @@ import cz.muni.fi.pb162.project.Coordinates;
 import cz.muni.fi.pb162.project.Game;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Represents moving strategy
  *
@@ -11,4 +16,35 @@ import org.apache.commons.lang3.tuple.Pair;
  */
 public interface MoveStrategy {
     Pair<Coordinates, Coordinates> makeMove(Game game);
+
+    /**
+     * Starts choosing a move in the background. The move is chosen on a copy of the game,
+     * so the game may be displayed while the strategy is thinking, but it must not be changed.
+     * <p>
+     * Strategies which can stop their search stop it as soon as the returned future is completed
+     * by anyone else (e.g. cancelled), other strategies finish their search and its result is thrown away.
+     *
+     * @param game     game in which the move is chosen
+     * @param executor executor running the search
+     * @return future completed by chosen move
+     */
+    default CompletableFuture<Pair<Coordinates, Coordinates>> makeMoveAsync(Game game, Executor executor) {
+        Game copy = game.makeClone();
+        return CompletableFuture.supplyAsync(() -> makeMove(copy), executor);
+    }
+
+    /**
+     * Starts choosing a move in the background (see {@link #makeMoveAsync(Game, Executor)}),
+     * which has to be chosen until given deadline. If it is not, the returned future is completed
+     * exceptionally with {@link java.util.concurrent.TimeoutException} and the search is stopped.
+     *
+     * @param game     game in which the move is chosen
+     * @param executor executor running the search
+     * @param timeout  maximal duration of the search
+     * @return future completed by chosen move
+     */
+    default CompletableFuture<Pair<Coordinates, Coordinates>> makeMoveAsync(Game game, Executor executor,
+                                                                             Duration timeout) {
+        return makeMoveAsync(game, executor).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
 }
@@ -0,0 +1,130 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.PieceType;
+import cz.muni.fi.pb162.project.moves.MoveList;
+import cz.muni.fi.pb162.project.moves.PackedMove;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Quiescence search which extends leaves of a search by captures and promotions only,
+ * so leaf positions are evaluated only when nothing is hanging.
+ * <p>
+ * Player on the move may always decline to capture, so static evaluation is a lower bound
+ * of the score (stand pat). Captures which cannot raise the score above alpha even if the captured
+ * piece is won for free (plus a safety margin) are skipped (delta pruning).
+ * <p>
+ * Search may be limited by depth and by a stop condition of the search owning it, which is checked
+ * at every node, so a long sequence of captures does not run past the budget of the owning search.
+ * <p>
+ * Instance keeps buffers for generated moves, so it must not be used by more threads at once.
+ *
+ * @author Adam Dzadon
+ */
+public final class Quiescence {
+
+    public static final int MAX_DEPTH = 32;
+
+    private static final int DELTA_MARGIN_PAWNS = 2;
+
+    private final Evaluator evaluator;
+    private final int pawnValue;
+    private final int maxDepth;
+    private final BooleanSupplier stopCondition;
+    private final MoveList[] moves;
+    private final MoveOrderer orderer;
+    private long nodes;
+
+    /**
+     * Creates quiescence search
+     *
+     * @param evaluator evaluation of quiet positions
+     * @param pawnValue value of pawn in units of the evaluation, used to estimate gain of captures
+     */
+    public Quiescence(Evaluator evaluator, int pawnValue) {
+        this(evaluator, pawnValue, MAX_DEPTH, () -> false);
+    }
+
+    /**
+     * Creates quiescence search limited by depth and stop condition
+     *
+     * @param evaluator     evaluation of quiet positions
+     * @param pawnValue     value of pawn in units of the evaluation, used to estimate gain of captures
+     * @param maxDepth      maximal number of captures searched from the leaf
+     * @param stopCondition condition of the owning search, when it holds the search returns immediately
+     */
+    public Quiescence(Evaluator evaluator, int pawnValue, int maxDepth, BooleanSupplier stopCondition) {
+        this.evaluator = evaluator;
+        this.pawnValue = pawnValue;
+        this.maxDepth = maxDepth;
+        this.stopCondition = stopCondition;
+        this.moves = MoveList.buffers(maxDepth + 1);
+        this.orderer = new MoveOrderer(maxDepth);
+    }
+
+    /**
+     * Searches captures of current position of given game until the position is quiet
+     *
+     * @param game  game to search, it is restored to its original position afterwards
+     * @param alpha lower bound of interesting scores
+     * @param beta  upper bound of interesting scores
+     * @return score from the view of player on the move, meaningless if the stop condition holds
+     */
+    public int search(Game game, int alpha, int beta) {
+        return search(game, alpha, beta, 0);
+    }
+
+    private int search(Game game, int alpha, int beta, int ply) {
+        if (stopCondition.getAsBoolean()) {
+            return 0;
+        }
+        int standPat = evaluator.evaluate(game, game.getCurrentPlayer().color());
+        if (standPat >= beta || ply >= maxDepth) {
+            return standPat;
+        }
+        int best = Math.max(alpha, standPat);
+        MoveList list = generateCaptures(game, ply);
+        for (int i = 0; i < list.size(); i++) {
+            int move = list.get(i);
+            if (!PackedMove.isPromotion(move) && standPat + gain(game, move) + DELTA_MARGIN_PAWNS * pawnValue <= best) {
+                continue;
+            }
+            game.makeMove(move);
+            nodes++;
+            int score = -search(game, -beta, -best, ply + 1);
+            game.unmakeMove();
+            if (score >= beta) {
+                return score;
+            }
+            best = Math.max(best, score);
+        }
+        return best;
+    }
+
+    /**
+     * Fills buffer of given ply with legal captures and promotions ordered by MVV-LVA
+     */
+    private MoveList generateCaptures(Game game, int ply) {
+        MoveList list = moves[ply];
+        game.generateCaptures(list);
+        orderer.order(game.getBoard(), list, PackedMove.NONE, ply);
+        return list;
+    }
+
+    /**
+     * Value of piece captured by given move
+     */
+    private int gain(Game game, int move) {
+        if (PackedMove.isEnPassant(move)) {
+            return PieceType.PAWN.getValue() * pawnValue;
+        }
+        Piece victim = game.getBoard().getPiece(PackedMove.to(move));
+        return victim == null ? 0 : victim.getPieceType().getValue() * pawnValue;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+}
@@ -0,0 +1,17 @@
+package cz.muni.fi.pb162.project.strategies;
+
+/**
+ * Listener notified by {@link InstrumentedStrategy} whenever it finishes searching a move
+ *
+ * @author Adam Dzadon
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * Called after the search of a move finished, on the thread which made the move
+     *
+     * @param statistics description of the search
+     */
+    void searchFinished(SearchStatistics statistics);
+}
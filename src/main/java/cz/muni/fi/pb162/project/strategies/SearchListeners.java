@@ -0,0 +1,40 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Group of listeners which notifies all of its members, used by {@link InstrumentedStrategy} implementations.
+ * Listeners may be added and removed from any thread.
+ *
+ * @author Adam Dzadon
+ */
+public final class SearchListeners implements SearchListener {
+
+    private final List<SearchListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds member of the group
+     *
+     * @param listener listener to add
+     */
+    public void add(SearchListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes member of the group
+     *
+     * @param listener listener to remove
+     */
+    public void remove(SearchListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void searchFinished(SearchStatistics statistics) {
+        for (SearchListener listener : listeners) {
+            listener.searchFinished(statistics);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener which accumulates statistics of all searched moves into counters, so they can be watched
+ * over JMX (see {@link #register(String)}). Rates are computed over all moves since the last reset,
+ * values called "last" describe the last move only.
+ *
+ * @author Adam Dzadon
+ */
+public class SearchMetrics implements SearchListener, SearchMetricsMXBean {
+
+    public static final String DOMAIN = "cz.muni.fi.pb162.project";
+
+    private final LongAdder moves = new LongAdder();
+    private final LongAdder nodes = new LongAdder();
+    private final LongAdder elapsedNanos = new LongAdder();
+    private final LongAdder cutoffs = new LongAdder();
+    private final LongAdder firstMoveCutoffs = new LongAdder();
+    private final LongAdder tableProbes = new LongAdder();
+    private final LongAdder tableHits = new LongAdder();
+    private volatile SearchStatistics last = SearchStatistics.EMPTY;
+
+    @Override
+    public void searchFinished(SearchStatistics statistics) {
+        moves.increment();
+        nodes.add(statistics.nodes());
+        elapsedNanos.add(statistics.elapsedNanos());
+        cutoffs.add(statistics.cutoffs());
+        firstMoveCutoffs.add(statistics.firstMoveCutoffs());
+        tableProbes.add(statistics.tableProbes());
+        tableHits.add(statistics.tableHits());
+        last = statistics;
+    }
+
+    /**
+     * Registers the metrics to platform MBean server under name
+     * {@code cz.muni.fi.pb162.project:type=SearchMetrics,name=<name>}
+     *
+     * @param name name distinguishing the metrics (e.g. name of player)
+     * @return name of registered MBean
+     */
+    public ObjectName register(String name) {
+        try {
+            ObjectName objectName = objectName(name);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register search metrics " + name, e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics registered by {@link #register(String)}, does nothing if they are not registered
+     *
+     * @param name name used for registration
+     */
+    public void unregister(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister search metrics " + name, e);
+        }
+    }
+
+    private static ObjectName objectName(String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=SearchMetrics,name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * Sums counters of all moves since the last reset, so rates are computed the same way
+     * as rates of one move
+     */
+    private SearchStatistics total() {
+        return new SearchStatistics(nodes.sum(), last.depth(), elapsedNanos.sum(), cutoffs.sum(),
+                firstMoveCutoffs.sum(), tableProbes.sum(), tableHits.sum());
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public long getTotalNodes() {
+        return nodes.sum();
+    }
+
+    @Override
+    public long getTotalElapsedMillis() {
+        return total().elapsedMillis();
+    }
+
+    @Override
+    public long getAverageNodesPerSecond() {
+        return total().nodesPerSecond();
+    }
+
+    @Override
+    public long getLastNodes() {
+        return last.nodes();
+    }
+
+    @Override
+    public long getLastNodesPerSecond() {
+        return last.nodesPerSecond();
+    }
+
+    @Override
+    public int getLastDepth() {
+        return last.depth();
+    }
+
+    @Override
+    public long getLastElapsedMillis() {
+        return last.elapsedMillis();
+    }
+
+    @Override
+    public double getFirstMoveCutoffRate() {
+        return total().firstMoveCutoffRate();
+    }
+
+    @Override
+    public double getTableHitRate() {
+        return total().tableHitRate();
+    }
+
+    @Override
+    public void reset() {
+        moves.reset();
+        nodes.reset();
+        elapsedNanos.reset();
+        cutoffs.reset();
+        firstMoveCutoffs.reset();
+        tableProbes.reset();
+        tableHits.reset();
+        last = SearchStatistics.EMPTY;
+    }
+}
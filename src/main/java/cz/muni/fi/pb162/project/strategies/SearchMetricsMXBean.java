@@ -0,0 +1,84 @@
+package cz.muni.fi.pb162.project.strategies;
+
+/**
+ * Management interface of {@link SearchMetrics}, exposes counters of searched moves over JMX
+ *
+ * @author Adam Dzadon
+ */
+public interface SearchMetricsMXBean {
+
+    /**
+     * Returns number of searched moves
+     *
+     * @return number of moves
+     */
+    long getMoves();
+
+    /**
+     * Returns number of nodes visited by all searched moves
+     *
+     * @return number of nodes
+     */
+    long getTotalNodes();
+
+    /**
+     * Returns duration of all searched moves
+     *
+     * @return duration in milliseconds
+     */
+    long getTotalElapsedMillis();
+
+    /**
+     * Returns speed of search over all searched moves
+     *
+     * @return number of nodes per second
+     */
+    long getAverageNodesPerSecond();
+
+    /**
+     * Returns number of nodes visited by the last move
+     *
+     * @return number of nodes
+     */
+    long getLastNodes();
+
+    /**
+     * Returns speed of search of the last move
+     *
+     * @return number of nodes per second
+     */
+    long getLastNodesPerSecond();
+
+    /**
+     * Returns depth reached by the last move
+     *
+     * @return depth of the search
+     */
+    int getLastDepth();
+
+    /**
+     * Returns duration of the last move
+     *
+     * @return duration in milliseconds
+     */
+    long getLastElapsedMillis();
+
+    /**
+     * Returns share of beta cutoffs caused by the first searched move over all searched moves
+     *
+     * @return rate from 0 to 1
+     */
+    double getFirstMoveCutoffRate();
+
+    /**
+     * Returns share of lookups in transposition table which found an entry over all searched moves
+     *
+     * @return rate from 0 to 1
+     */
+    double getTableHitRate();
+
+    /**
+     * Sets all counters to zero
+     */
+    void reset();
+}
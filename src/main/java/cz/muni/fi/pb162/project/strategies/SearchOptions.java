@@ -0,0 +1,42 @@
+package cz.muni.fi.pb162.project.strategies;
+
+/**
+ * Record to configure pruning and reductions of {@link AlphaBetaSearch}
+ *
+ * @param principalVariation - true to search all moves but the first one with zero window first
+ *                           and re-search them only if they turn out better (PVS)
+ * @param nullMove           - true to try passing the turn before searching moves (null move pruning),
+ *                           it is never tried in check, after other null move or without pieces other
+ *                           than pawns and king (where zugzwang is likely)
+ * @param nullMoveReduction  - how many plies shallower the position after null move is searched
+ * @param lateMoveReduction  - how many plies shallower late quiet moves are searched first, 0 to disable
+ * @param lateMoveMinDepth   - minimal remaining depth of node whose moves may be reduced
+ * @param lateMoveMinIndex   - number of moves of node searched without reduction
+ * @author Adam Dzadon
+ */
+public record SearchOptions(boolean principalVariation,
+                            boolean nullMove,
+                            int nullMoveReduction,
+                            int lateMoveReduction,
+                            int lateMoveMinDepth,
+                            int lateMoveMinIndex) {
+
+    /**
+     * Plain alpha-beta search without any pruning or reductions
+     */
+    public static final SearchOptions ALPHA_BETA = new SearchOptions(false, false, 0, 0, 0, 0);
+
+    /**
+     * Principal variation search with null move pruning and late move reductions
+     */
+    public static final SearchOptions PVS = new SearchOptions(true, true, 2, 1, 3, 3);
+
+    /**
+     * Checks values of the options
+     */
+    public SearchOptions {
+        if (nullMoveReduction < 0 || lateMoveReduction < 0 || lateMoveMinDepth < 0 || lateMoveMinIndex < 0) {
+            throw new IllegalArgumentException("Reductions and their limits cannot be negative");
+        }
+    }
+}
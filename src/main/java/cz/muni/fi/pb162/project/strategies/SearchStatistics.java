@@ -0,0 +1,79 @@
+package cz.muni.fi.pb162.project.strategies;
+
+/**
+ * Record to describe the search of one move
+ *
+ * @param nodes            - number of visited nodes
+ * @param depth            - depth of the last completed iteration
+ * @param elapsedNanos     - duration of the search in nanoseconds
+ * @param cutoffs          - number of nodes which failed high (beta cutoff)
+ * @param firstMoveCutoffs - number of nodes which failed high on the first searched move
+ * @param tableProbes      - number of lookups in transposition table
+ * @param tableHits        - number of lookups which found an entry of the position
+ * @author Adam Dzadon
+ */
+public record SearchStatistics(long nodes,
+                               int depth,
+                               long elapsedNanos,
+                               long cutoffs,
+                               long firstMoveCutoffs,
+                               long tableProbes,
+                               long tableHits) {
+
+    /**
+     * Statistics of no search
+     */
+    public static final SearchStatistics EMPTY = new SearchStatistics(0, 0, 0, 0, 0, 0, 0);
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    /**
+     * Returns speed of the search
+     *
+     * @return number of nodes per second
+     */
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * NANOS_PER_SECOND / elapsedNanos;
+    }
+
+    /**
+     * Returns duration of the search
+     *
+     * @return duration in milliseconds
+     */
+    public long elapsedMillis() {
+        return elapsedNanos / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns share of cutoffs caused by the first searched move, measure of quality of move ordering
+     *
+     * @return rate from 0 to 1
+     */
+    public double firstMoveCutoffRate() {
+        return cutoffs == 0 ? 0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * Returns share of lookups in transposition table which found an entry of the position
+     *
+     * @return rate from 0 to 1
+     */
+    public double tableHitRate() {
+        return tableProbes == 0 ? 0 : (double) tableHits / tableProbes;
+    }
+
+    /**
+     * Adds counters of other search running at the same time (e.g. helper thread),
+     * depth and duration are kept
+     *
+     * @param other statistics of other search
+     * @return combined statistics
+     */
+    public SearchStatistics merge(SearchStatistics other) {
+        return new SearchStatistics(nodes + other.nodes, depth, elapsedNanos, cutoffs + other.cutoffs,
+                firstMoveCutoffs + other.firstMoveCutoffs, tableProbes + other.tableProbes,
+                tableHits + other.tableHits);
+    }
+}
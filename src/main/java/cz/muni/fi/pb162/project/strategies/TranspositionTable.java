@@ -0,0 +1,163 @@
+package cz.muni.fi.pb162.project.strategies;
+
+import cz.muni.fi.pb162.project.moves.PackedMove;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of already searched positions keyed by Zobrist key of position.
+ * <p>
+ * Every entry stores depth of the search, score (from the view of player on the move), type of bound
+ * and best move packed into one {@code long}. Entries live in primitive arrays grouped into buckets
+ * of two slots: the first slot keeps the deepest search (depth-preferred), the second one is always replaced.
+ * <p>
+ * The key is stored XOR-ed with the data, so an entry torn by concurrent writes of several threads
+ * is detected on probe and treated as missing. Thanks to this, the table may be shared by search threads
+ * without any locking.
+ *
+ * @author Adam Dzadon
+ */
+public class TranspositionTable {
+
+    public static final long MISS = 0L;
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+    public static final int NO_MOVE = PackedMove.NONE;
+
+    private static final int BYTES_PER_ENTRY = 2 * Long.BYTES;
+    private static final int SLOTS = 2;
+    private static final int MOVE_BITS = 16;
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 48;
+    private static final int BOUND_SHIFT = 56;
+    private static final long BYTE_MASK = 0xFFL;
+    private static final long BOUND_MASK = 0x3L;
+    private static final int MAX_BUCKETS = 1 << 29;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int bucketMask;
+
+    /**
+     * Creates a table which uses at most given amount of memory
+     *
+     * @param megabytes memory budget of the table in megabytes, budgets over 16 GB are capped
+     */
+    public TranspositionTable(int megabytes) {
+        long budget = Math.max(1L, megabytes) * 1024 * 1024 / BYTES_PER_ENTRY / SLOTS;
+        int buckets = Integer.highestOneBit((int) Math.min(budget, MAX_BUCKETS));
+        keys = new long[buckets * SLOTS];
+        entries = new long[buckets * SLOTS];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Returns number of entries the table can hold
+     *
+     * @return capacity of the table
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Removes all entries from the table
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, 0L);
+    }
+
+    /**
+     * Finds entry of position with given key
+     *
+     * @param key Zobrist key of position
+     * @return packed entry (see {@link #depth(long)}, {@link #score(long)}, {@link #bound(long)}
+     * and {@link #move(long)}) or {@link #MISS} if the position is not in the table
+     */
+    public long probe(long key) {
+        int index = indexOf(key);
+        for (int slot = index; slot < index + SLOTS; slot++) {
+            long entry = entries[slot];
+            if (entry != MISS && (keys[slot] ^ entry) == key) {
+                return entry;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Stores result of search of position with given key.
+     * Result goes to the depth-preferred slot if it is at least as deep as the one stored there
+     * or if it belongs to the same position, otherwise it replaces the second slot.
+     *
+     * @param key   Zobrist key of position
+     * @param depth depth of the search
+     * @param score score from the view of player on the move
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     * @param move  best move found (or {@link #NO_MOVE})
+     */
+    public void store(long key, int depth, int score, int bound, int move) {
+        long entry = pack(depth, score, bound, move);
+        int index = indexOf(key);
+        long preferred = entries[index];
+        int slot = index + 1;
+        if (preferred == MISS || (keys[index] ^ preferred) == key || depth >= depth(preferred)) {
+            slot = index;
+        }
+        keys[slot] = key ^ entry;
+        entries[slot] = entry;
+    }
+
+    /**
+     * Returns depth of search stored in given entry
+     *
+     * @param entry packed entry
+     * @return depth of search
+     */
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & BYTE_MASK);
+    }
+
+    /**
+     * Returns score stored in given entry
+     *
+     * @param entry packed entry
+     * @return score from the view of player on the move
+     */
+    public static int score(long entry) {
+        return (int) (entry >>> SCORE_SHIFT);
+    }
+
+    /**
+     * Returns type of bound stored in given entry
+     *
+     * @param entry packed entry
+     * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     */
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+
+    /**
+     * Returns best move stored in given entry
+     *
+     * @param entry packed entry
+     * @return packed move or {@link #NO_MOVE}
+     */
+    public static int move(long entry) {
+        return (int) (entry & ((1L << MOVE_BITS) - 1));
+    }
+
+    private static long pack(int depth, int score, int bound, int move) {
+        return ((long) bound << BOUND_SHIFT)
+                | ((Math.min(depth, (int) BYTE_MASK) & BYTE_MASK) << DEPTH_SHIFT)
+                | ((score & 0xFFFFFFFFL) << SCORE_SHIFT)
+                | (move & ((1L << MOVE_BITS) - 1));
+    }
+
+    private int indexOf(long key) {
+        return (int) (key & bucketMask) * SLOTS;
+    }
+}
@@ -0,0 +1,88 @@
+package cz.muni.fi.pb162.project.utils;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Coordinates;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Utility class for working with bitboards.
+ * Square with coordinates (row, col) is represented by bit number {@code row * Board.SIZE + col}.
+ *
+ * @author Adam Dzadon
+ */
+public final class Bitboards {
+
+    public static final long EMPTY = 0L;
+
+    private Bitboards() {
+    }
+
+    /**
+     * Static method to convert coordinates (row, col) to index of square
+     *
+     * @param row index of row
+     * @param col index of column
+     * @return index of square (0 - 63)
+     */
+    public static int square(int row, int col) {
+        return row * Board.SIZE + col;
+    }
+
+    /**
+     * Returns index of row of given square
+     *
+     * @param square index of square
+     * @return index of row
+     */
+    public static int row(int square) {
+        return square / Board.SIZE;
+    }
+
+    /**
+     * Returns index of column of given square
+     *
+     * @param square index of square
+     * @return index of column
+     */
+    public static int column(int square) {
+        return square % Board.SIZE;
+    }
+
+    /**
+     * Returns bitboard with only given square set
+     *
+     * @param square index of square
+     * @return bitboard with single bit set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Decides whether given square is set in given bitboard
+     *
+     * @param bitboard bitboard to check
+     * @param square   index of square
+     * @return true if the square is set
+     */
+    public static boolean isSet(long bitboard, int square) {
+        return (bitboard & bit(square)) != 0;
+    }
+
+    /**
+     * Converts given bitboard to the set of coordinates of its squares
+     *
+     * @param bitboard bitboard to convert
+     * @return set of coordinates of all set squares
+     */
+    public static Set<Coordinates> toCoordinates(long bitboard) {
+        Set<Coordinates> res = new HashSet<>();
+        for (long rest = bitboard; rest != 0; rest &= rest - 1) {
+            int square = Long.numberOfTrailingZeros(rest);
+            res.add(Coordinates.of(row(square), column(square)));
+        }
+        return res;
+    }
+}
@@ -37,6 +37,6 @@ public final class BoardNotation {
     public static Coordinates getCoordinatesOfNotation(char x, int y) {
         int newX = x - ASCII_OF_A;
         int newY = y - 1;
-        return new Coordinates(newX, newY);
+        return Coordinates.of(newX, newY);
     }
 }
@@ -0,0 +1,145 @@
+package cz.muni.fi.pb162.project.utils;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Coordinates;
+import cz.muni.fi.pb162.project.Game;
+import cz.muni.fi.pb162.project.Piece;
+import cz.muni.fi.pb162.project.moves.MoveList;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utility class for counting leaf nodes of the tree of legal moves (perft).
+ * Moves are generated by {@link Game#getMovesByPiece(Piece)} and played by
+ * {@link Game#makeMove(Coordinates, Coordinates)} and {@link Game#unmakeMove()}, so the count checks
+ * both correctness of move generation and of making and taking back moves.
+ * <p>
+ * Searches use packed moves instead ({@link Game#generateMoves(MoveList)} and {@link Game#makeMove(int)}),
+ * which are counted by {@link #perftPacked(Game, int)}.
+ *
+ * @author Adam Dzadon
+ */
+public final class Perft {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private Perft() {
+    }
+
+    /**
+     * Counts leaf nodes of the tree of legal moves of given depth from current position of given game
+     *
+     * @param game  game with the position
+     * @param depth depth of the tree
+     * @return number of leaf nodes
+     */
+    public static long perft(Game game, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        Board board = game.getBoard();
+        long nodes = 0;
+        for (Piece piece : board.getAllByColor(game.getCurrentPlayer().color())) {
+            Coordinates from = board.findCoordinatesOfPieceById(piece.getId());
+            for (Coordinates to : game.getMovesByPiece(piece)) {
+                if (depth == 1) {
+                    nodes++;
+                    continue;
+                }
+                game.makeMove(from, to);
+                nodes += perft(game, depth - 1);
+                game.unmakeMove();
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts leaf nodes of the tree of legal moves like {@link #perft(Game, int)}, but with moves
+     * generated by {@link Game#generateMoves(MoveList)} and played by {@link Game#makeMove(int)}
+     * and {@link Game#unmakeMove()}, which are used by searches
+     *
+     * @param game  game with the position
+     * @param depth depth of the tree
+     * @return number of leaf nodes
+     */
+    public static long perftPacked(Game game, int depth) {
+        return perftPacked(game, depth, MoveList.buffers(depth + 1));
+    }
+
+    private static long perftPacked(Game game, int depth, MoveList[] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = buffers[depth];
+        game.generateMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += perftPacked(game, depth - 1, buffers);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts leaf nodes of the tree of given depth separately for every move from current position
+     *
+     * @param game  game with the position
+     * @param depth depth of the tree (at least 1)
+     * @return number of leaf nodes by move in notation of {@link BoardNotation} (e.g. "g1g3")
+     */
+    public static Map<String, Long> divide(Game game, int depth) {
+        Board board = game.getBoard();
+        Map<String, Long> res = new LinkedHashMap<>();
+        for (Piece piece : board.getAllByColor(game.getCurrentPlayer().color())) {
+            Coordinates from = board.findCoordinatesOfPieceById(piece.getId());
+            for (Coordinates to : game.getMovesByPiece(piece)) {
+                game.makeMove(from, to);
+                res.put(notation(from) + notation(to), perft(game, depth - 1));
+                game.unmakeMove();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Counts leaf nodes like {@link #perft(Game, int)} and measures the time of counting
+     *
+     * @param game  game with the position
+     * @param depth depth of the tree
+     * @return number of leaf nodes and elapsed time
+     */
+    public static Result measure(Game game, int depth) {
+        long start = System.nanoTime();
+        long nodes = perft(game, depth);
+        return new Result(nodes, System.nanoTime() - start);
+    }
+
+    private static String notation(Coordinates coordinates) {
+        return BoardNotation.getNotationOfCoordinates(coordinates.letterNumber(), coordinates.number());
+    }
+
+    /**
+     * Result of measured perft
+     *
+     * @param nodes number of leaf nodes
+     * @param nanos elapsed time in nanoseconds
+     * @author Adam Dzadon
+     */
+    public record Result(long nodes, long nanos) {
+
+        /**
+         * Returns speed of move generation
+         *
+         * @return number of leaf nodes per second
+         */
+        public long nodesPerSecond() {
+            return nanos == 0 ? 0 : (long) (nodes * NANOS_PER_SECOND / nanos);
+        }
+    }
+}
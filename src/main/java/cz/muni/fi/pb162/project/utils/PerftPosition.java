@@ -0,0 +1,73 @@
+package cz.muni.fi.pb162.project.utils;
+
+import cz.muni.fi.pb162.project.Chess;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.Player;
+
+/**
+ * Enum of reference positions for {@link Perft} with expected numbers of leaf nodes.
+ * <p>
+ * Counts of initial position and of position 3 are the standard ones. Remaining positions contain
+ * castles or promotions, which differ in this game, so their counts are the ones of this game
+ * and they serve for regression checks only:
+ * <ul>
+ *     <li>queen-side castle moves the king to the second column (b1 or b8), so that square must not be
+ *     attacked either; this is why Kiwipete has 2 038 nodes at depth 2 instead of 2 039, as after Nxd7
+ *     the knight covers b8 and black cannot castle queen-side,</li>
+ *     <li>pawn is always promoted to queen, so every promotion is a single move instead of four.</li>
+ * </ul>
+ *
+ * @author Adam Dzadon
+ */
+public enum PerftPosition {
+
+    INITIAL("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 20, 400, 8_902, 197_281),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -", 48, 2_038, 97_943),
+    POSITION_3("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - -", 14, 191, 2_812, 43_238, 674_624),
+    POSITION_4("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 6, 222, 7_859),
+    POSITION_5("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 41, 1_373, 54_007);
+
+    private final String fen;
+    private final long[] expected;
+
+    PerftPosition(String fen, long... expected) {
+        this.fen = fen;
+        this.expected = expected;
+    }
+
+    public String getFen() {
+        return fen;
+    }
+
+    /**
+     * Returns maximal depth with known number of leaf nodes
+     *
+     * @return maximal depth
+     */
+    public int getMaxDepth() {
+        return expected.length;
+    }
+
+    /**
+     * Returns expected number of leaf nodes of tree of given depth
+     *
+     * @param depth depth of the tree (1 to {@link #getMaxDepth()})
+     * @return expected number of leaf nodes
+     */
+    public long getExpectedNodes(int depth) {
+        return expected[depth - 1];
+    }
+
+    /**
+     * Creates a new game set to this position
+     *
+     * @return game with this position
+     */
+    public Chess toGame() {
+        return new Chess.Builder()
+                .addPlayer(new Player("White", Color.WHITE))
+                .addPlayer(new Player("Black", Color.BLACK))
+                .fromFen(fen)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package cz.muni.fi.pb162.project.utils;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.PieceType;
+
+/**
+ * Utility class holding bonuses (in centipawns) of pieces standing on particular squares.
+ * Tables below are written from the view of white, whose pieces move towards row 0,
+ * so the first line of each table is row 0. Tables of black are mirrored by rows.
+ * Piece types without a table (draughts) get no bonus.
+ *
+ * @author Adam Dzadon
+ */
+public final class PieceSquareTables {
+
+    private static final int[] PAWN = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+            5, 5, 10, 25, 25, 10, 5, 5,
+            0, 0, 0, 20, 20, 0, 0, 0,
+            5, -5, -10, 0, 0, -10, -5, 5,
+            5, 10, 10, -20, -20, 10, 10, 5,
+            0, 0, 0, 0, 0, 0, 0, 0,
+    };
+
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20, 0, 0, 0, 0, -20, -40,
+            -30, 0, 10, 15, 15, 10, 0, -30,
+            -30, 5, 15, 20, 20, 15, 5, -30,
+            -30, 0, 15, 20, 20, 15, 0, -30,
+            -30, 5, 10, 15, 15, 10, 5, -30,
+            -40, -20, 0, 5, 5, 0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50,
+    };
+
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 10, 10, 5, 0, -10,
+            -10, 5, 5, 10, 10, 5, 5, -10,
+            -10, 0, 10, 10, 10, 10, 0, -10,
+            -10, 10, 10, 10, 10, 10, 10, -10,
+            -10, 5, 0, 0, 0, 0, 5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20,
+    };
+
+    private static final int[] ROOK = {
+            0, 0, 0, 0, 0, 0, 0, 0,
+            5, 10, 10, 10, 10, 10, 10, 5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            -5, 0, 0, 0, 0, 0, 0, -5,
+            0, 0, 0, 5, 5, 0, 0, 0,
+    };
+
+    private static final int[] QUEEN = {
+            -20, -10, -10, -5, -5, -10, -10, -20,
+            -10, 0, 0, 0, 0, 0, 0, -10,
+            -10, 0, 5, 5, 5, 5, 0, -10,
+            -5, 0, 5, 5, 5, 5, 0, -5,
+            0, 0, 5, 5, 5, 5, 0, -5,
+            -10, 5, 5, 5, 5, 5, 0, -10,
+            -10, 0, 5, 0, 0, 0, 0, -10,
+            -20, -10, -10, -5, -5, -10, -10, -20,
+    };
+
+    private static final int[] KING = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+            20, 20, 0, 0, 0, 0, 20, 20,
+            20, 30, 10, 0, 0, 10, 30, 20,
+    };
+
+    private static final int[][][] TABLES =
+            new int[Color.values().length][PieceType.values().length][Board.SIZE * Board.SIZE];
+
+    static {
+        fill(PieceType.PAWN, PAWN);
+        fill(PieceType.KNIGHT, KNIGHT);
+        fill(PieceType.BISHOP, BISHOP);
+        fill(PieceType.ROOK, ROOK);
+        fill(PieceType.QUEEN, QUEEN);
+        fill(PieceType.KING, KING);
+    }
+
+    private PieceSquareTables() {
+    }
+
+    private static void fill(PieceType pieceType, int[] table) {
+        int[] white = TABLES[Color.WHITE.ordinal()][pieceType.ordinal()];
+        int[] black = TABLES[Color.BLACK.ordinal()][pieceType.ordinal()];
+        for (int square = 0; square < table.length; square++) {
+            white[square] = table[square];
+            black[Bitboards.square(Board.SIZE - 1 - Bitboards.row(square), Bitboards.column(square))] = table[square];
+        }
+    }
+
+    /**
+     * Returns bonus of piece of given color and type standing on given square
+     *
+     * @param color     color of piece
+     * @param pieceType type of piece
+     * @param square    index of square
+     * @return bonus in centipawns
+     */
+    public static int bonus(Color color, PieceType pieceType, int square) {
+        return TABLES[color.ordinal()][pieceType.ordinal()][square];
+    }
+}
@@ -0,0 +1,73 @@
+package cz.muni.fi.pb162.project.utils;
+
+import cz.muni.fi.pb162.project.Board;
+import cz.muni.fi.pb162.project.Color;
+import cz.muni.fi.pb162.project.PieceType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Utility class holding random keys for Zobrist hashing of positions.
+ * Key of a position is XOR of keys of all (color, piece type, square) triples on the board,
+ * key of side to move (if black is on the move) and key of column of possible en passant.
+ * Keys are generated with fixed seed, so hashes are the same in every run.
+ *
+ * @author Adam Dzadon
+ */
+public final class Zobrist {
+
+    private static final long SEED = 0x2F0B_7A3DL;
+    private static final long[][][] PIECES =
+            new long[Color.values().length][PieceType.values().length][Board.SIZE * Board.SIZE];
+    private static final long BLACK_TO_MOVE;
+    private static final long[] EN_PASSANT = new long[Board.SIZE];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[][] byType : PIECES) {
+            for (long[] bySquare : byType) {
+                for (int square = 0; square < bySquare.length; square++) {
+                    bySquare[square] = random.nextLong();
+                }
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (int col = 0; col < EN_PASSANT.length; col++) {
+            EN_PASSANT[col] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns key of piece of given color and type standing on given square
+     *
+     * @param color     color of piece
+     * @param pieceType type of piece
+     * @param square    index of square
+     * @return random key
+     */
+    public static long piece(Color color, PieceType pieceType, int square) {
+        return PIECES[color.ordinal()][pieceType.ordinal()][square];
+    }
+
+    /**
+     * Returns key which is present in positions where black is on the move
+     *
+     * @return random key
+     */
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * Returns key of possible en passant capture of pawn in given column
+     *
+     * @param col index of column
+     * @return random key
+     */
+    public static long enPassant(int col) {
+        return EN_PASSANT[col];
+    }
+}
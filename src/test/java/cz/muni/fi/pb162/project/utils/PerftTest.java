@@ -0,0 +1,40 @@
+package cz.muni.fi.pb162.project.utils;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks move generation and making and taking back moves against known perft counts
+ * of every {@link PerftPosition} up to its maximal known depth, both for moves given as coordinates
+ * and for packed moves used by searches
+ *
+ * @author Adam Dzadon
+ */
+class PerftTest {
+
+    static Stream<Arguments> positions() {
+        return Stream.of(PerftPosition.values())
+                .flatMap(position -> IntStream.rangeClosed(1, position.getMaxDepth())
+                        .mapToObj(depth -> Arguments.of(position, depth)));
+    }
+
+    @ParameterizedTest(name = "{0} depth {1}")
+    @MethodSource("positions")
+    void countsLeafNodes(PerftPosition position, int depth) {
+        assertThat(Perft.perft(position.toGame(), depth))
+                .isEqualTo(position.getExpectedNodes(depth));
+    }
+
+    @ParameterizedTest(name = "{0} depth {1}")
+    @MethodSource("positions")
+    void countsLeafNodesOfPackedMoves(PerftPosition position, int depth) {
+        assertThat(Perft.perftPacked(position.toGame(), depth))
+                .isEqualTo(position.getExpectedNodes(depth));
+    }
+}